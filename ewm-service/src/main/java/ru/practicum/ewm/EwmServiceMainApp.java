@@ -2,8 +2,10 @@ package ru.practicum.ewm;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class EwmServiceMainApp {
     public static void main(String[] args) {
         SpringApplication.run(EwmServiceMainApp.class, args);
@@ -3,6 +3,7 @@ package ru.practicum.ewm.admin;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -31,6 +32,7 @@ import ru.practicum.ewm.users.dto.NewUserRequest;
 import ru.practicum.ewm.users.dto.UserDto;
 import ru.practicum.ewm.users.model.User;
 import ru.practicum.ewm.users.service.UserService;
+import ru.practicum.ewm.utility.Cursor;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
@@ -72,12 +74,14 @@ public class AdminController {
     }
 
     @GetMapping("/users")
-    public List<UserDto> getUsers(@RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
-                                  @RequestParam(defaultValue = "10") @Positive Integer size,
-                                  @RequestParam(required = false) List<Long> ids
+    public ResponseEntity<List<UserDto>> getUsers(@RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
+                                                  @RequestParam(defaultValue = "10") @Positive Integer size,
+                                                  @RequestParam(required = false) List<Long> ids,
+                                                  @RequestParam(required = false) String after
     ) {
-        log.info("GET request from Admin to get users IN:{} from:{} with size:{}", ids, from, size);
-        return userService.getUsers(ids, from, size);
+        log.info("GET request from Admin to get users IN:{} from:{} with size:{} after:{}", ids, from, size, after);
+        return Cursor.withNextCursor(userService.getUsers(ids, from, size, after), size,
+                user -> Cursor.encode(user.getId()));
     }
 
     @PostMapping("/users")
@@ -95,9 +99,10 @@ public class AdminController {
     }
 
     @GetMapping("/events")
-    public List<EventFullDto> getEvents(@Valid AdminEventParams params) {
+    public ResponseEntity<List<EventFullDto>> getEvents(@Valid AdminEventParams params) {
         log.info("GET request from admin to get events");
-        return eventService.getAllEventFromAdmin(params);
+        return Cursor.withNextCursor(eventService.getAllEventFromAdmin(params), params.getSize(),
+                event -> Cursor.encode(event.getId()));
     }
 
     @PatchMapping("/events/{eventId}")
@@ -2,6 +2,7 @@ package ru.practicum.ewm.category.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -10,6 +11,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import ru.practicum.ewm.category.dto.CategoryDto;
 import ru.practicum.ewm.category.service.CategoryService;
+import ru.practicum.ewm.utility.Cursor;
 
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
@@ -25,10 +27,12 @@ public class CategoryController {
     private final CategoryService categoryService;
 
     @GetMapping
-    public List<CategoryDto> getCategories(@RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
-                                           @RequestParam(defaultValue = "10") @Positive Integer size) {
-        log.info("GET request to get all categories from:{} with size:{}", from, size);
-        return categoryService.getAllCategories(from, size);
+    public ResponseEntity<List<CategoryDto>> getCategories(@RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
+                                                           @RequestParam(defaultValue = "10") @Positive Integer size,
+                                                           @RequestParam(required = false) String after) {
+        log.info("GET request to get all categories from:{} with size:{} after:{}", from, size, after);
+        return Cursor.withNextCursor(categoryService.getAllCategories(from, size, after), size,
+                category -> Cursor.encode(category.getId()));
     }
 
     @GetMapping("/{catId}")
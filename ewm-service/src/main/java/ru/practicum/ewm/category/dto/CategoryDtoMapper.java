@@ -14,6 +14,13 @@ public class CategoryDtoMapper {
                 .build();
     }
 
+    public Category toCategory(CategoryDto dto) {
+        return Category.builder()
+                .id(dto.getId())
+                .name(dto.getName())
+                .build();
+    }
+
     public CategoryDto toDto(Category category) {
         return CategoryDto.builder()
                 .id(category.getId())
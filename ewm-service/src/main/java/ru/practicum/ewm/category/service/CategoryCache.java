@@ -0,0 +1,79 @@
+package ru.practicum.ewm.category.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.ewm.category.dto.CategoryDto;
+import ru.practicum.ewm.category.dto.CategoryDtoMapper;
+import ru.practicum.ewm.category.model.Category;
+import ru.practicum.ewm.category.repository.CategoryRepository;
+import ru.practicum.ewm.utility.AfterCommit;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+@Component
+public class CategoryCache {
+    private final CategoryRepository categoryRepository;
+    private final TransactionTemplate reloadTransaction;
+    private volatile Snapshot snapshot;
+
+    public CategoryCache(CategoryRepository categoryRepository, PlatformTransactionManager transactionManager) {
+        this.categoryRepository = categoryRepository;
+        this.reloadTransaction = new TransactionTemplate(transactionManager);
+        reloadTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        reloadTransaction.setReadOnly(true);
+    }
+
+    @PostConstruct
+    public synchronized void reload() {
+        List<CategoryDto> categories = new ArrayList<>();
+        Map<Long, CategoryDto> byId = new HashMap<>();
+        List<Category> all = reloadTransaction.execute(status -> categoryRepository.findAll(Sort.by("id")));
+        for (Category category : all) {
+            CategoryDto dto = CategoryDtoMapper.toDto(category);
+            categories.add(dto);
+            byId.put(dto.getId(), dto);
+        }
+        snapshot = new Snapshot(Collections.unmodifiableList(categories), byId);
+    }
+
+    public void reloadAfterCommit() {
+        AfterCommit.run(this::reload);
+    }
+
+    public Optional<CategoryDto> get(Long id) {
+        return Optional.ofNullable(snapshot.byId.get(id)).map(CategoryCache::copy);
+    }
+
+    public List<CategoryDto> getPage(long afterId, int offset, int size) {
+        return snapshot.categories.stream()
+                .filter(category -> category.getId() > afterId)
+                .skip(offset)
+                .limit(size)
+                .map(CategoryCache::copy)
+                .collect(Collectors.toList());
+    }
+
+    private static CategoryDto copy(CategoryDto category) {
+        return CategoryDto.builder()
+                .id(category.getId())
+                .name(category.getName())
+                .build();
+    }
+
+    @RequiredArgsConstructor
+    private static final class Snapshot {
+        private final List<CategoryDto> categories;
+        private final Map<Long, CategoryDto> byId;
+    }
+}
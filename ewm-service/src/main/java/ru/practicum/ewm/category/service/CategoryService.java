@@ -13,7 +13,7 @@ public interface CategoryService {
 
     Category updateCategory(Long id, NewCategoryDto categoryDto);
 
-    List<CategoryDto> getAllCategories(Integer from, Integer size);
+    List<CategoryDto> getAllCategories(Integer from, Integer size, String after);
 
     CategoryDto getCategory(Long id);
 }
@@ -9,15 +9,13 @@ import ru.practicum.ewm.category.dto.CategoryDtoMapper;
 import ru.practicum.ewm.category.dto.NewCategoryDto;
 import ru.practicum.ewm.category.model.Category;
 import ru.practicum.ewm.category.repository.CategoryRepository;
-import ru.practicum.ewm.events.model.Event;
 import ru.practicum.ewm.events.repository.EventRepository;
 import ru.practicum.ewm.exception.ConflictException;
 import ru.practicum.ewm.exception.NotFoundException;
 import ru.practicum.ewm.exception.UniqueException;
-import ru.practicum.ewm.utility.Pagination;
+import ru.practicum.ewm.utility.Cursor;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -25,11 +23,14 @@ import java.util.stream.Collectors;
 public class CategoryServiceImpl implements CategoryService {
     private final CategoryRepository categoryRepository;
     private final EventRepository eventRepository;
+    private final CategoryCache categoryCache;
 
     @Override
     public Category createCategory(NewCategoryDto categoryDto) {
         try {
-            return categoryRepository.save(CategoryDtoMapper.toCategory(categoryDto));
+            Category category = categoryRepository.save(CategoryDtoMapper.toCategory(categoryDto));
+            categoryCache.reloadAfterCommit();
+            return category;
         } catch (DataIntegrityViolationException e) {
             throw new UniqueException(String.format("Category name:%s is not unique.", categoryDto.getName()));
         }
@@ -38,11 +39,11 @@ public class CategoryServiceImpl implements CategoryService {
     @Override
     public void deleteCategory(Long id) {
         Category category = checkExist(id);
-        List<Event> events = eventRepository.findByCategory(category);
-        if (!events.isEmpty()) {
+        if (eventRepository.existsByCategoryId(id)) {
             throw new ConflictException("Can't delete category due to using for some events");
         }
         categoryRepository.delete(category);
+        categoryCache.reloadAfterCommit();
     }
 
     @Override
@@ -50,7 +51,9 @@ public class CategoryServiceImpl implements CategoryService {
         try {
             Category category = checkExist(id);
             category.setName(categoryDto.getName());
-            return categoryRepository.save(category);
+            Category updated = categoryRepository.save(category);
+            categoryCache.reloadAfterCommit();
+            return updated;
         } catch (DataIntegrityViolationException e) {
             throw new UniqueException(String.format("Category name:%s is not unique.", categoryDto.getName()));
         }
@@ -58,16 +61,15 @@ public class CategoryServiceImpl implements CategoryService {
 
     @Transactional(readOnly = true)
     @Override
-    public List<CategoryDto> getAllCategories(Integer from, Integer size) {
-        Pagination pagination = new Pagination(from, size);
-        return CategoryDtoMapper.toDtos(categoryRepository.findAll(pagination)
-                .stream().collect(Collectors.toList()));
+    public List<CategoryDto> getAllCategories(Integer from, Integer size, String after) {
+        return categoryCache.getPage(Cursor.decodeId(after), after == null ? from : 0, size);
     }
 
     @Transactional(readOnly = true)
     @Override
     public CategoryDto getCategory(Long id) {
-        return CategoryDtoMapper.toDto(checkExist(id));
+        return categoryCache.get(id)
+                .orElseThrow(() -> new NotFoundException(String.format("Category:%d is not found.", id)));
     }
 
     private Category checkExist(Long id) {
@@ -2,6 +2,7 @@ package ru.practicum.ewm.comment.controller.pub;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -10,6 +11,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import ru.practicum.ewm.comment.dto.CommentDto;
 import ru.practicum.ewm.comment.service.CommentService;
+import ru.practicum.ewm.utility.Cursor;
 
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
@@ -24,10 +26,12 @@ public class CommentPublicController {
     private final CommentService commentService;
 
     @GetMapping("/{eventId}")
-    public List<CommentDto> getRequestListAllCommentsEvent(@PathVariable Long eventId,
-                                                           @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
-                                                           @RequestParam(defaultValue = "10") @Positive Integer size) {
+    public ResponseEntity<List<CommentDto>> getRequestListAllCommentsEvent(@PathVariable Long eventId,
+                                                                           @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
+                                                                           @RequestParam(defaultValue = "10") @Positive Integer size,
+                                                                           @RequestParam(required = false) String after) {
         log.info("GET request to get comments from event:{}", eventId);
-        return commentService.getCommentsOfEvent(eventId, from, size);
+        return Cursor.withNextCursor(commentService.getCommentsOfEvent(eventId, from, size, after), size,
+                comment -> Cursor.encode(comment.getId()));
     }
 }
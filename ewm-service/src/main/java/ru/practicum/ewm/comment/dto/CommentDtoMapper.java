@@ -21,6 +21,16 @@ public class CommentDtoMapper {
                 .build();
     }
 
+    public CommentDto toDto(EventCommentView comment) {
+        return CommentDto.builder()
+                .id(comment.getId())
+                .comment(comment.getComment())
+                .authorId(comment.getAuthorId())
+                .created(comment.getCreated())
+                .edited(Boolean.TRUE.equals(comment.getEdited()))
+                .build();
+    }
+
     public Comment toComment(NewCommentDto dto, Event event, User user) {
         return Comment.builder()
                 .comment(dto.getComment())
@@ -0,0 +1,17 @@
+package ru.practicum.ewm.comment.dto;
+
+import java.time.LocalDateTime;
+
+public interface EventCommentView {
+    Long getId();
+
+    Long getEventId();
+
+    Long getAuthorId();
+
+    String getComment();
+
+    LocalDateTime getCreated();
+
+    Boolean getEdited();
+}
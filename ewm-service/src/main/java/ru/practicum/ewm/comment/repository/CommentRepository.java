@@ -1,9 +1,13 @@
 package ru.practicum.ewm.comment.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.ewm.comment.dto.EventCommentView;
 import ru.practicum.ewm.comment.module.Comment;
 import ru.practicum.ewm.utility.Pagination;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,6 +15,15 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
 
     List<Comment> findAllByEventId(Long eventId, Pagination page);
 
+    List<Comment> findAllByEventIdAndIdGreaterThan(Long eventId, Long afterId, Pagination page);
+
+    @Query(value = "SELECT ranked.id AS \"id\", ranked.event_id AS \"eventId\", ranked.author_id AS \"authorId\", " +
+            "ranked.comment AS \"comment\", ranked.created AS \"created\", ranked.edited AS \"edited\" " +
+            "FROM (SELECT c.*, ROW_NUMBER() OVER (PARTITION BY c.event_id ORDER BY c.id) AS rn " +
+            "FROM comments c WHERE c.event_id IN (:eventIds)) ranked " +
+            "WHERE ranked.rn <= :limit ORDER BY ranked.event_id, ranked.id", nativeQuery = true)
+    List<EventCommentView> findLeadingCommentsOfEvents(@Param("eventIds") Collection<Long> eventIds, @Param("limit") int limit);
+
     List<Comment> findByAuthorId(Long userId);
 
     Optional<Comment> findByAuthorIdAndId(Long userId, Long id);
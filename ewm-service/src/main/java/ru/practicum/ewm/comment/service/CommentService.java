@@ -14,7 +14,7 @@ public interface CommentService {
 
     CommentDto getUserComment(Long userId, Long commentId);
 
-    List<CommentDto> getCommentsOfEvent(Long eventId, Integer from, Integer size);
+    List<CommentDto> getCommentsOfEvent(Long eventId, Integer from, Integer size, String after);
 
     void deleteComment(Long userId, Long commentId);
 
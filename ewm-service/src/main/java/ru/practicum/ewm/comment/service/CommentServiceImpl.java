@@ -16,6 +16,7 @@ import ru.practicum.ewm.exception.NotFoundException;
 import ru.practicum.ewm.exception.ValidationException;
 import ru.practicum.ewm.users.model.User;
 import ru.practicum.ewm.users.repository.UserRepository;
+import ru.practicum.ewm.utility.Cursor;
 import ru.practicum.ewm.utility.Pagination;
 
 import java.time.LocalDateTime;
@@ -75,9 +76,10 @@ public class CommentServiceImpl implements CommentService {
     }
 
     @Override
-    public List<CommentDto> getCommentsOfEvent(Long eventId, Integer from, Integer size) {
+    public List<CommentDto> getCommentsOfEvent(Long eventId, Integer from, Integer size, String after) {
         checkEvent(eventId);
-        return CommentDtoMapper.toDtos(commentRepository.findAllByEventId(eventId, new Pagination(from, size)));
+        return CommentDtoMapper.toDtos(commentRepository.findAllByEventIdAndIdGreaterThan(eventId,
+                Cursor.decodeId(after), new Pagination(after == null ? from : 0, size)));
     }
 
     @Override
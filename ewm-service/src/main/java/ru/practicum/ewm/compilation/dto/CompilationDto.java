@@ -9,7 +9,7 @@ import ru.practicum.ewm.events.dto.EventShortDto;
 
 import java.util.Set;
 
-@Builder
+@Builder(toBuilder = true)
 @Getter
 @Setter
 @NoArgsConstructor
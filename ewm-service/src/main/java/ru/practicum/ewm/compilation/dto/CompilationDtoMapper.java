@@ -4,6 +4,7 @@ import lombok.experimental.UtilityClass;
 import ru.practicum.ewm.compilation.model.Compilation;
 import ru.practicum.ewm.events.dto.EventDtoMapper;
 
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @UtilityClass
@@ -19,6 +20,16 @@ public class CompilationDtoMapper {
                 .build();
     }
 
+    public CompilationDto withViews(CompilationDto compilation, Map<Long, Long> views) {
+        return compilation.toBuilder()
+                .events(compilation.getEvents().stream()
+                        .map(event -> event.toBuilder()
+                                .views(views.getOrDefault(event.getId(), 0L))
+                                .build())
+                        .collect(Collectors.toSet()))
+                .build();
+    }
+
     public Compilation toCompilation(NewCompilationDto compilationDto) {
         return Compilation.builder()
                 .pinned(compilationDto.isPinned())
@@ -2,10 +2,25 @@ package ru.practicum.ewm.compilation.repository;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.ewm.compilation.model.Compilation;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CompilationRepository extends JpaRepository<Compilation, Long> {
-    List<Compilation> findAllByPinned(Boolean pinned, Pageable pageable);
+    @Query("SELECT DISTINCT c FROM COMPILATIONS c LEFT JOIN FETCH c.events e LEFT JOIN FETCH e.category " +
+            "LEFT JOIN FETCH e.initiator LEFT JOIN FETCH e.location")
+    List<Compilation> findAllWithEvents();
+
+    @Query("SELECT DISTINCT c FROM COMPILATIONS c LEFT JOIN FETCH c.events e LEFT JOIN FETCH e.category " +
+            "LEFT JOIN FETCH e.initiator LEFT JOIN FETCH e.location WHERE c.id IN :ids")
+    List<Compilation> findAllWithEventsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT c.id FROM COMPILATIONS c")
+    List<Long> findPageIds(Pageable pageable);
+
+    @Query("SELECT c.id FROM COMPILATIONS c WHERE c.pinned = :pinned")
+    List<Long> findPageIdsByPinned(@Param("pinned") boolean pinned, Pageable pageable);
 }
\ No newline at end of file
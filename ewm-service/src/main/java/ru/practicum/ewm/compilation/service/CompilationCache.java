@@ -0,0 +1,104 @@
+package ru.practicum.ewm.compilation.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.ewm.compilation.dto.CompilationDto;
+import ru.practicum.ewm.compilation.dto.CompilationDtoMapper;
+import ru.practicum.ewm.compilation.model.Compilation;
+import ru.practicum.ewm.compilation.repository.CompilationRepository;
+import ru.practicum.ewm.events.model.Event;
+import ru.practicum.ewm.events.service.EventViewsCache;
+import ru.practicum.ewm.utility.AfterCommit;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+@RequiredArgsConstructor
+public class CompilationCache {
+    private final CompilationRepository compilationRepository;
+    private final EventViewsCache eventViewsCache;
+    private final AtomicLong version = new AtomicLong();
+    private volatile Snapshot snapshot;
+
+    @Value("${ewm.compilations.cache.max-age}")
+    private Duration maxAge;
+
+    public List<CompilationDto> getAll() {
+        return current().compilations;
+    }
+
+    public Optional<CompilationDto> get(Long compId) {
+        return Optional.ofNullable(current().byId.get(compId));
+    }
+
+    public void invalidateAfterCommit() {
+        AfterCommit.run(version::incrementAndGet);
+    }
+
+    public void invalidateEventAfterCommit(Long eventId) {
+        Snapshot current = snapshot;
+        if (current == null || current.eventIds.contains(eventId)) {
+            invalidateAfterCommit();
+        }
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (isValid(current)) {
+            return current;
+        }
+        synchronized (this) {
+            current = snapshot;
+            if (!isValid(current)) {
+                current = load(version.get());
+                snapshot = current;
+            }
+            return current;
+        }
+    }
+
+    private boolean isValid(Snapshot current) {
+        return current != null && current.version == version.get() &&
+                System.nanoTime() - current.loadedAt < maxAge.toNanos();
+    }
+
+    private Snapshot load(long loadedVersion) {
+        List<Compilation> compilations = new ArrayList<>(compilationRepository.findAllWithEvents());
+        compilations.sort(Comparator.comparing(Compilation::getId));
+        Set<Long> eventIds = new HashSet<>();
+        for (Compilation compilation : compilations) {
+            for (Event event : compilation.getEvents()) {
+                eventIds.add(event.getId());
+            }
+        }
+        Map<Long, Long> views = eventViewsCache.getViews(eventIds);
+        List<CompilationDto> dtos = new ArrayList<>(compilations.size());
+        Map<Long, CompilationDto> byId = new HashMap<>();
+        for (Compilation compilation : compilations) {
+            CompilationDto dto = CompilationDtoMapper.withViews(CompilationDtoMapper.toDto(compilation), views);
+            dtos.add(dto);
+            byId.put(dto.getId(), dto);
+        }
+        return new Snapshot(loadedVersion, System.nanoTime(), Collections.unmodifiableList(dtos), byId, eventIds);
+    }
+
+    @RequiredArgsConstructor
+    private static final class Snapshot {
+        private final long version;
+        private final long loadedAt;
+        private final List<CompilationDto> compilations;
+        private final Map<Long, CompilationDto> byId;
+        private final Set<Long> eventIds;
+    }
+}
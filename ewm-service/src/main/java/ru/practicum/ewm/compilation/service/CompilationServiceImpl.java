@@ -1,7 +1,7 @@
 package ru.practicum.ewm.compilation.service;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.ewm.compilation.dto.CompilationDto;
@@ -10,15 +10,20 @@ import ru.practicum.ewm.compilation.dto.NewCompilationDto;
 import ru.practicum.ewm.compilation.dto.UpdateCompilationDto;
 import ru.practicum.ewm.compilation.model.Compilation;
 import ru.practicum.ewm.compilation.repository.CompilationRepository;
+import ru.practicum.ewm.events.dto.EventShortDto;
 import ru.practicum.ewm.events.model.Event;
 import ru.practicum.ewm.events.repository.EventRepository;
+import ru.practicum.ewm.events.service.EventViewsCache;
 import ru.practicum.ewm.exception.NotFoundException;
 import ru.practicum.ewm.exception.ValidationException;
+import ru.practicum.ewm.utility.Pagination;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -29,6 +34,11 @@ import java.util.stream.Collectors;
 public class CompilationServiceImpl implements CompilationService {
     private final CompilationRepository compilationRepository;
     private final EventRepository eventRepository;
+    private final CompilationCache compilationCache;
+    private final EventViewsCache eventViewsCache;
+
+    @Value("${ewm.compilations.cache.enabled}")
+    private boolean cacheEnabled;
 
     @Transactional
     @Override
@@ -43,7 +53,8 @@ public class CompilationServiceImpl implements CompilationService {
         compilation.setEvents(eventsSet);
 
         Compilation compilationAfterSave = compilationRepository.save(compilation);
-        return CompilationDtoMapper.toDto(compilationAfterSave);
+        compilationCache.invalidateAfterCommit();
+        return withViews(List.of(CompilationDtoMapper.toDto(compilationAfterSave))).get(0);
     }
 
     @Transactional
@@ -64,8 +75,9 @@ public class CompilationServiceImpl implements CompilationService {
             throw new ValidationException("Title can not be empty.");
         }
         compilation.setTitle(Optional.ofNullable(update.getTitle()).orElse(compilation.getTitle()));
+        compilationCache.invalidateAfterCommit();
 
-        return CompilationDtoMapper.toDto(compilation);
+        return withViews(List.of(CompilationDtoMapper.toDto(compilation))).get(0);
     }
 
     @Transactional
@@ -73,23 +85,58 @@ public class CompilationServiceImpl implements CompilationService {
     public void deleteCompilation(Long compId) {
         checkCompilation(compId);
         compilationRepository.deleteById(compId);
+        compilationCache.invalidateAfterCommit();
     }
 
     @Override
     public List<CompilationDto> getCompilations(Boolean pinned, Integer from, Integer size) {
-        PageRequest pageRequest = PageRequest.of(from, size);
-        List<Compilation> compilations = (pinned == null) ?
-                compilationRepository.findAll(pageRequest).getContent() :
-                compilationRepository.findAllByPinned(pinned, pageRequest);
-
-        return compilations.stream()
+        if (cacheEnabled) {
+            return compilationCache.getAll().stream()
+                    .filter(compilation -> pinned == null || compilation.isPinned() == pinned)
+                    .skip(from)
+                    .limit(size)
+                    .collect(Collectors.toList());
+        }
+        Pagination pagination = new Pagination(from, size);
+        List<Long> ids = pinned == null ?
+                compilationRepository.findPageIds(pagination) :
+                compilationRepository.findPageIdsByPinned(pinned, pagination);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return withViews(compilationRepository.findAllWithEventsByIdIn(ids).stream()
+                .sorted(Comparator.comparing(Compilation::getId))
                 .map(CompilationDtoMapper::toDto)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     @Override
     public CompilationDto getCompilationById(Long compId) {
-        return CompilationDtoMapper.toDto(checkCompilation(compId));
+        if (cacheEnabled) {
+            return compilationCache.get(compId)
+                    .orElseThrow(() -> new NotFoundException(String.format("Compilation:%d is not found.", compId)));
+        }
+        CompilationDto compilation = compilationRepository.findAllWithEventsByIdIn(List.of(compId)).stream()
+                .findFirst()
+                .map(CompilationDtoMapper::toDto)
+                .orElseThrow(() -> new NotFoundException(String.format("Compilation:%d is not found.", compId)));
+        return withViews(List.of(compilation)).get(0);
+    }
+
+    private List<CompilationDto> withViews(List<CompilationDto> compilations) {
+        Set<Long> eventIds = new HashSet<>();
+        for (CompilationDto compilation : compilations) {
+            for (EventShortDto event : compilation.getEvents()) {
+                eventIds.add(event.getId());
+            }
+        }
+        if (eventIds.isEmpty()) {
+            return compilations;
+        }
+        Map<Long, Long> views = eventViewsCache.getViews(eventIds);
+        return compilations.stream()
+                .map(compilation -> CompilationDtoMapper.withViews(compilation, views))
+                .collect(Collectors.toList());
     }
 
     private Compilation checkCompilation(Long compId) {
@@ -2,6 +2,7 @@ package ru.practicum.ewm.events.controller.pub;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -10,7 +11,9 @@ import org.springframework.web.bind.annotation.RestController;
 import ru.practicum.ewm.events.dto.EventFullDto;
 import ru.practicum.ewm.events.dto.EventParams;
 import ru.practicum.ewm.events.dto.EventShortDto;
+import ru.practicum.ewm.events.model.enums.EventSort;
 import ru.practicum.ewm.events.service.EventService;
+import ru.practicum.ewm.utility.Cursor;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
@@ -26,12 +29,14 @@ public class EventPublicController {
     private final EventService eventService;
 
     @GetMapping
-    public List<EventShortDto> getAllEvents(@Valid EventParams params,
-                                            HttpServletRequest request,
-                                            @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
-                                            @RequestParam(defaultValue = "10") @Positive Integer size) {
+    public ResponseEntity<List<EventShortDto>> getAllEvents(@Valid EventParams params,
+                                                            HttpServletRequest request,
+                                                            @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
+                                                            @RequestParam(defaultValue = "10") @Positive Integer size) {
         log.info("GET request to get all events with params");
-        return eventService.getAllEvents(params, request, from, size);
+        EventSort sort = EventSort.from(params.getSort());
+        return Cursor.withNextCursor(eventService.getAllEvents(params, request, from, size), size,
+                event -> nextCursor(event, sort, params.getText()));
     }
 
     @GetMapping("/{eventId}")
@@ -40,4 +45,14 @@ public class EventPublicController {
         log.info("GET request to get event:{}", eventId);
         return eventService.getEventById(eventId, request);
     }
+
+    private static String nextCursor(EventShortDto event, EventSort sort, String text) {
+        if (sort == EventSort.EVENT_DATE) {
+            return Cursor.encode(event.getId(), event.getEventDate());
+        }
+        if (sort == EventSort.VIEWS) {
+            return Cursor.encode(event.getId(), event.getViews());
+        }
+        return sort == EventSort.RELEVANCE && text != null ? null : Cursor.encode(event.getId());
+    }
 }
@@ -29,4 +29,5 @@ public class AdminEventParams {
     private Integer from = 0;
     @Positive
     private Integer size = 10;
+    private String after;
 }
@@ -30,6 +30,7 @@ public class EventDtoMapper {
                 .id(event.getId())
                 .annotation(event.getAnnotation())
                 .category(CategoryDtoMapper.toDto(event.getCategory()))
+                .confirmedRequests(event.getConfirmedRequests())
                 .createdOn(event.getCreatedDate())
                 .description(event.getDescription())
                 .eventDate(event.getEventDate())
@@ -49,6 +50,7 @@ public class EventDtoMapper {
                 .id(event.getId())
                 .annotation(event.getAnnotation())
                 .category(CategoryDtoMapper.toDto(event.getCategory()))
+                .confirmedRequests(event.getConfirmedRequests())
                 .eventDate(event.getEventDate())
                 .initiator(UserDtoMapper.toShortDto(event.getInitiator()))
                 .paid(event.isPaid())
@@ -25,4 +25,5 @@ public class EventParams {
     private LocalDateTime rangeEnd;
     private Boolean onlyAvailable = false;
     private String sort;
+    private String after;
 }
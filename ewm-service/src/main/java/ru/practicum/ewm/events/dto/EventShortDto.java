@@ -13,7 +13,7 @@ import ru.practicum.ewm.users.dto.UserShortDto;
 import java.time.LocalDateTime;
 import java.util.List;
 
-@Builder
+@Builder(toBuilder = true)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -0,0 +1,9 @@
+package ru.practicum.ewm.events.dto;
+
+public interface EventTextView {
+    Long getId();
+
+    String getAnnotation();
+
+    String getDescription();
+}
@@ -0,0 +1,7 @@
+package ru.practicum.ewm.events.dto;
+
+public interface EventViewsView {
+    Long getId();
+
+    Long getViews();
+}
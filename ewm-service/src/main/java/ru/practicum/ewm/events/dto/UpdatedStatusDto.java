@@ -1,19 +0,0 @@
-package ru.practicum.ewm.events.dto;
-
-import lombok.AllArgsConstructor;
-import lombok.Builder;
-import lombok.Getter;
-import lombok.NoArgsConstructor;
-import lombok.Setter;
-
-import java.util.List;
-
-@Builder
-@Getter
-@Setter
-@NoArgsConstructor
-@AllArgsConstructor
-public class UpdatedStatusDto {
-    private List<Long> updatedIds;
-    private List<Long> processedIds;
-}
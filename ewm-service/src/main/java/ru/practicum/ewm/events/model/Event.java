@@ -19,6 +19,8 @@ import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
 import java.time.LocalDateTime;
 
 @Builder
@@ -27,7 +29,14 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity(name = "EVENTS")
+@NamedEntityGraph(name = Event.WITH_ASSOCIATIONS, attributeNodes = {
+        @NamedAttributeNode("category"),
+        @NamedAttributeNode("location"),
+        @NamedAttributeNode("initiator")
+})
 public class Event {
+    public static final String WITH_ASSOCIATIONS = "Event.withAssociations";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -51,6 +60,12 @@ public class Event {
     @JoinColumn(name = "INITIATOR_ID")
     private User initiator;
     private boolean paid;
+    @Column(name = "CONFIRMED_REQUEST", updatable = false)
+    @Builder.Default
+    private Integer confirmedRequests = 0;
+    @Column(name = "VIEWS", insertable = false, updatable = false)
+    @Builder.Default
+    private Long views = 0L;
     @Column(name = "PARTICIPANT_LIMIT")
     private Integer participantLimit;
     @Column(name = "REQUEST_MODERATION")
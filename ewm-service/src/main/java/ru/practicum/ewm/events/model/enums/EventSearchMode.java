@@ -0,0 +1,7 @@
+package ru.practicum.ewm.events.model.enums;
+
+public enum EventSearchMode {
+    LIKE,
+    FULL_TEXT,
+    INDEX
+}
@@ -0,0 +1,16 @@
+package ru.practicum.ewm.events.model.enums;
+
+public enum EventSort {
+    EVENT_DATE,
+    VIEWS,
+    RELEVANCE;
+
+    public static EventSort from(String sort) {
+        for (EventSort value : values()) {
+            if (value.name().equalsIgnoreCase(sort)) {
+                return value;
+            }
+        }
+        return null;
+    }
+}
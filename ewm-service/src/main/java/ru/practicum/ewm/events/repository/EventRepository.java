@@ -1,20 +1,83 @@
 package ru.practicum.ewm.events.repository;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
-import ru.practicum.ewm.category.model.Category;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.lang.Nullable;
+import ru.practicum.ewm.events.dto.EventTextView;
+import ru.practicum.ewm.events.dto.EventViewsView;
 import ru.practicum.ewm.events.model.Event;
+import ru.practicum.ewm.events.model.enums.EventState;
 import ru.practicum.ewm.utility.Pagination;
 
+import javax.persistence.LockModeType;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface EventRepository extends JpaRepository<Event, Long>, JpaSpecificationExecutor<Event> {
+public interface EventRepository extends JpaRepository<Event, Long>, JpaSpecificationExecutor<Event>,
+        EventSliceRepository {
+    @Override
+    @EntityGraph(Event.WITH_ASSOCIATIONS)
+    Page<Event> findAll(@Nullable Specification<Event> spec, Pageable pageable);
+
+    @Override
+    @EntityGraph(Event.WITH_ASSOCIATIONS)
+    Optional<Event> findById(Long id);
+
+    @EntityGraph(Event.WITH_ASSOCIATIONS)
     List<Event> findAllByInitiatorId(Long id, Pagination page);
 
+    @EntityGraph(Event.WITH_ASSOCIATIONS)
     Optional<Event> findByInitiatorIdAndId(Long userId, Long eventId);
 
+    @EntityGraph(Event.WITH_ASSOCIATIONS)
     List<Event> findAllByIdIn(List<Long> ids);
 
-    List<Event> findByCategory(Category category);
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM EVENTS WHERE CATEGORY_ID = :categoryId)", nativeQuery = true)
+    boolean existsByCategoryId(@Param("categoryId") Long categoryId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM EVENTS e WHERE e.id = :eventId AND e.initiator.id = :userId")
+    Optional<Event> findByInitiatorIdAndIdForUpdate(@Param("userId") Long userId, @Param("eventId") Long eventId);
+
+    @Modifying
+    @Query("UPDATE EVENTS e SET e.confirmedRequests = e.confirmedRequests + :delta WHERE e.id = :eventId")
+    int addConfirmedRequests(@Param("eventId") Long eventId, @Param("delta") int delta);
+
+    @Modifying
+    @Query("UPDATE EVENTS e SET e.confirmedRequests = e.confirmedRequests + 1 WHERE e.id = :eventId " +
+            "AND (e.participantLimit = 0 OR e.confirmedRequests < e.participantLimit)")
+    int reserveParticipant(@Param("eventId") Long eventId);
+
+    @Query(value = "SELECT id FROM events WHERE id > :afterId ORDER BY id LIMIT :limit FOR UPDATE", nativeQuery = true)
+    List<Long> lockIdsAfter(@Param("afterId") Long afterId, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "UPDATE events e SET confirmed_request = (SELECT COUNT(*) FROM requests r " +
+            "WHERE r.event_id = e.id AND r.status = 'CONFIRMED') " +
+            "WHERE e.id IN (:ids) AND e.confirmed_request IS DISTINCT FROM (SELECT COUNT(*) FROM requests r " +
+            "WHERE r.event_id = e.id AND r.status = 'CONFIRMED')", nativeQuery = true)
+    int reconcileConfirmedRequests(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT e.id AS id, e.annotation AS annotation, e.description AS description FROM EVENTS e " +
+            "WHERE e.eventStatus = :state AND e.id > :afterId ORDER BY e.id")
+    List<EventTextView> findTextsAfter(@Param("state") EventState state, @Param("afterId") Long afterId,
+                                       Pageable pageable);
+
+    @Query("SELECT e.id AS id, e.views AS views FROM EVENTS e " +
+            "WHERE e.eventStatus = :state AND e.id > :afterId ORDER BY e.id")
+    List<EventViewsView> findViewsAfter(@Param("state") EventState state, @Param("afterId") Long afterId,
+                                        Pageable pageable);
+
+    @Query("SELECT e.id AS id, e.views AS views FROM EVENTS e " +
+            "WHERE e.eventStatus = :state AND e.id IN :ids ORDER BY e.id")
+    List<EventViewsView> findViewsByIdIn(@Param("state") EventState state, @Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,11 @@
+package ru.practicum.ewm.events.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.ewm.events.model.Event;
+
+import java.util.List;
+
+public interface EventSliceRepository {
+    List<Event> findSlice(Specification<Event> spec, Pageable pageable);
+}
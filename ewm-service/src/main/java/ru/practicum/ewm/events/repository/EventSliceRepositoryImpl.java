@@ -0,0 +1,40 @@
+package ru.practicum.ewm.events.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import ru.practicum.ewm.events.model.Event;
+
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class EventSliceRepositoryImpl implements EventSliceRepository {
+    private static final String FETCH_GRAPH = "javax.persistence.fetchgraph";
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<Event> findSlice(Specification<Event> spec, Pageable pageable) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Event> query = criteriaBuilder.createQuery(Event.class);
+        Root<Event> root = query.from(Event.class);
+        Predicate predicate = spec.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, criteriaBuilder));
+        }
+        return entityManager.createQuery(query)
+                .setHint(FETCH_GRAPH, entityManager.getEntityGraph(Event.WITH_ASSOCIATIONS))
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+    }
+}
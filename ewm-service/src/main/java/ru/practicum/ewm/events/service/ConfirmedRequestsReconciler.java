@@ -0,0 +1,45 @@
+package ru.practicum.ewm.events.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.ewm.events.repository.EventRepository;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ConfirmedRequestsReconciler {
+    private static final int BATCH_SIZE = 200;
+
+    private final EventRepository eventRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Scheduled(cron = "${ewm.confirmed-requests.reconcile-cron}")
+    public void reconcile() {
+        AtomicInteger repaired = new AtomicInteger();
+        long afterId = 0;
+        List<Long> ids;
+        do {
+            long from = afterId;
+            ids = transactionTemplate.execute(status -> {
+                List<Long> locked = eventRepository.lockIdsAfter(from, BATCH_SIZE);
+                if (!locked.isEmpty()) {
+                    repaired.addAndGet(eventRepository.reconcileConfirmedRequests(locked));
+                }
+                return locked;
+            });
+            if (ids == null || ids.isEmpty()) {
+                break;
+            }
+            afterId = ids.get(ids.size() - 1);
+        } while (ids.size() == BATCH_SIZE);
+        if (repaired.get() > 0) {
+            log.warn("Repaired confirmed request counter of {} events.", repaired.get());
+        }
+    }
+}
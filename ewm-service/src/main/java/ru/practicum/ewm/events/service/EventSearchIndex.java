@@ -0,0 +1,166 @@
+package ru.practicum.ewm.events.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.ewm.events.dto.EventTextView;
+import ru.practicum.ewm.events.model.Event;
+import ru.practicum.ewm.events.model.enums.EventSearchMode;
+import ru.practicum.ewm.events.model.enums.EventState;
+import ru.practicum.ewm.events.repository.EventRepository;
+import ru.practicum.ewm.utility.AfterCommit;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EventSearchIndex {
+    private static final int REBUILD_BATCH = 1000;
+
+    private final EventRepository eventRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final Map<Long, String[]> documents = new HashMap<>();
+
+    @Value("${ewm.search.mode:LIKE}")
+    private EventSearchMode searchMode;
+
+    @PostConstruct
+    public void rebuild() {
+        if (searchMode != EventSearchMode.INDEX) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            long afterId = 0;
+            List<EventTextView> batch;
+            do {
+                batch = eventRepository.findTextsAfter(EventState.PUBLISHED, afterId, PageRequest.of(0, REBUILD_BATCH));
+                for (EventTextView event : batch) {
+                    put(event.getId(), event.getAnnotation(), event.getDescription());
+                    afterId = event.getId();
+                }
+            } while (batch.size() == REBUILD_BATCH);
+            log.info("Event search index built: {} events, {} terms.", documents.size(), postings.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Long> search(String text) {
+        Set<String> terms = tokenize(text);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            List<PostingList> lists = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                PostingList list = postings.get(term);
+                if (list == null) {
+                    return List.of();
+                }
+                lists.add(list);
+            }
+            lists.sort(Comparator.comparingInt(PostingList::size));
+            PostingList smallest = lists.get(0);
+            List<Long> ids = new ArrayList<>(smallest.size());
+            for (int i = 0; i < smallest.size(); i++) {
+                long id = smallest.get(i);
+                if (containedInAll(lists, id)) {
+                    ids.add(id);
+                }
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void updateAfterCommit(Event event) {
+        if (searchMode != EventSearchMode.INDEX) {
+            return;
+        }
+        long id = event.getId();
+        boolean published = event.getEventStatus() == EventState.PUBLISHED;
+        String annotation = event.getAnnotation();
+        String description = event.getDescription();
+        AfterCommit.run(() -> {
+            lock.writeLock().lock();
+            try {
+                remove(id);
+                if (published) {
+                    put(id, annotation, description);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    private void put(long id, String annotation, String description) {
+        Set<String> terms = tokenize(annotation);
+        terms.addAll(tokenize(description));
+        for (String term : terms) {
+            postings.computeIfAbsent(term, key -> new PostingList()).add(id);
+        }
+        documents.put(id, terms.toArray(new String[0]));
+    }
+
+    private void remove(long id) {
+        String[] terms = documents.remove(id);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            PostingList list = postings.get(term);
+            list.remove(id);
+            if (list.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    private static boolean containedInAll(List<PostingList> lists, long id) {
+        for (int i = 1; i < lists.size(); i++) {
+            if (!lists.get(i).contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Set<String> tokenize(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        if (text == null) {
+            return terms;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean partOfTerm = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (partOfTerm && start < 0) {
+                start = i;
+            } else if (!partOfTerm && start >= 0) {
+                terms.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return terms;
+    }
+}
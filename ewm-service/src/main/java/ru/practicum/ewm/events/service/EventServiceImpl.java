@@ -1,21 +1,22 @@
 package ru.practicum.ewm.events.service;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.ewm.EndpointHit;
-import ru.practicum.ewm.ViewStats;
+import ru.practicum.ewm.category.dto.CategoryDtoMapper;
 import ru.practicum.ewm.category.model.Category;
-import ru.practicum.ewm.category.repository.CategoryRepository;
+import ru.practicum.ewm.category.service.CategoryCache;
 import ru.practicum.ewm.client.StatsClient;
+import ru.practicum.ewm.comment.dto.CommentDto;
 import ru.practicum.ewm.comment.dto.CommentDtoMapper;
+import ru.practicum.ewm.comment.dto.EventCommentView;
 import ru.practicum.ewm.comment.module.Comment;
 import ru.practicum.ewm.comment.repository.CommentRepository;
+import ru.practicum.ewm.compilation.service.CompilationCache;
 import ru.practicum.ewm.events.dto.AdminEventParams;
 import ru.practicum.ewm.events.dto.EventDtoMapper;
 import ru.practicum.ewm.events.dto.EventFullDto;
@@ -27,10 +28,11 @@ import ru.practicum.ewm.events.dto.NewEventDto;
 import ru.practicum.ewm.events.dto.UpdateEventAdminRequest;
 import ru.practicum.ewm.events.dto.UpdateEventRequest;
 import ru.practicum.ewm.events.dto.UpdateEventUserRequest;
-import ru.practicum.ewm.events.dto.UpdatedStatusDto;
 import ru.practicum.ewm.events.model.Event;
 import ru.practicum.ewm.events.model.Location;
 import ru.practicum.ewm.events.model.enums.EventAdminState;
+import ru.practicum.ewm.events.model.enums.EventSearchMode;
+import ru.practicum.ewm.events.model.enums.EventSort;
 import ru.practicum.ewm.events.model.enums.EventState;
 import ru.practicum.ewm.events.model.enums.EventUserState;
 import ru.practicum.ewm.events.repository.EventRepository;
@@ -45,35 +47,49 @@ import ru.practicum.ewm.request.model.enums.RequestStatus;
 import ru.practicum.ewm.request.repository.RequestRepository;
 import ru.practicum.ewm.users.model.User;
 import ru.practicum.ewm.users.repository.UserRepository;
+import ru.practicum.ewm.utility.Cursor;
 import ru.practicum.ewm.utility.Pagination;
+import ru.practicum.ewm.utility.SearchFunctionsContributor;
 
+import javax.persistence.criteria.Expression;
 import javax.servlet.http.HttpServletRequest;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class EventServiceImpl implements EventService {
+    private static final int COMMENTS_PER_EVENT = 10;
+
     private final StatsClient statsClient;
     private final EventRepository eventRepository;
     private final UserRepository userRepository;
-    private final CategoryRepository categoryRepository;
+    private final CategoryCache categoryCache;
     private final LocationRepository locationRepository;
     private final RequestRepository requestRepository;
-    private final ObjectMapper objectMapper;
+    private final EventViewsCache eventViewsCache;
     private final CommentRepository commentRepository;
+    private final EventSearchIndex eventSearchIndex;
+    private final CompilationCache compilationCache;
+
+    @Value("${ewm.search.mode:LIKE}")
+    private EventSearchMode searchMode;
 
     @Override
     public List<EventFullDto> getAllEventFromAdmin(AdminEventParams params) {
-        Pagination pagination = new Pagination(params.getFrom(), params.getSize());
+        Pagination pagination = new Pagination(params.getAfter() == null ? params.getFrom() : 0, params.getSize());
 
         Specification<Event> spec = Specification.where(null);
+        if (params.getAfter() != null) {
+            long afterId = Cursor.decode(params.getAfter()).getId();
+            spec = spec.and((root, query, criteriaBuilder) -> criteriaBuilder.greaterThan(root.get("id"), afterId));
+        }
 
         List<Long> users = params.getUsers();
         List<String> states = params.getStates();
@@ -102,18 +118,9 @@ public class EventServiceImpl implements EventService {
                     criteriaBuilder.greaterThanOrEqualTo(root.get("eventDate"), rangeStart));
         }
 
-        Page<Event> events = eventRepository.findAll(spec, pagination);
-
-        List<EventFullDto> result = events.getContent().stream()
+        return eventRepository.findSlice(spec, pagination).stream()
                 .map(EventDtoMapper::toEventFullDto)
                 .collect(Collectors.toList());
-
-        Map<Long, List<Request>> confirmedRequestsCount = getConfirmedRequestsCount(events.toList());
-        for (EventFullDto event : result) {
-            List<Request> requests = confirmedRequestsCount.getOrDefault(event.getId(), List.of());
-            event.setConfirmedRequests(requests.size());
-        }
-        return result;
     }
 
     @Transactional
@@ -150,6 +157,8 @@ public class EventServiceImpl implements EventService {
         Event eventAfterUpdate = null;
         if (hasChanges) {
             eventAfterUpdate = eventRepository.save(eventForUpdate);
+            eventSearchIndex.updateAfterCommit(eventAfterUpdate);
+            compilationCache.invalidateEventAfterCommit(eventId);
         }
         return eventAfterUpdate != null ? EventDtoMapper.toEventFullDto(eventAfterUpdate) : null;
     }
@@ -223,6 +232,8 @@ public class EventServiceImpl implements EventService {
         Event eventAfterUpdate = null;
         if (hasChanges) {
             eventAfterUpdate = eventRepository.save(eventForUpdate);
+            eventSearchIndex.updateAfterCommit(eventAfterUpdate);
+            compilationCache.invalidateEventAfterCommit(eventId);
         }
         return eventAfterUpdate != null ? EventDtoMapper.toEventFullDto(eventAfterUpdate) : null;
     }
@@ -231,7 +242,8 @@ public class EventServiceImpl implements EventService {
     @Override
     public EventRequestStatusUpdateResult updateEventRequestStatus(Long userId, Long eventId, EventRequestStatusUpdateRequest update) {
         checkUser(userId);
-        Event tempEvent = checkEventExistForUser(userId, eventId);
+        Event tempEvent = eventRepository.findByInitiatorIdAndIdForUpdate(userId, eventId)
+                .orElseThrow(() -> new NotFoundException(String.format("No Event:%d from User:%d was found", eventId, userId)));
 
         if (!tempEvent.isRequestModeration() || tempEvent.getParticipantLimit() == 0) {
             throw new ConflictException("This event does not require confirmation of requests.");
@@ -239,51 +251,42 @@ public class EventServiceImpl implements EventService {
 
         RequestStatus status = update.getStatus();
 
-        int confirmedRequestsCount = requestRepository.countByEventIdAndStatus(tempEvent.getId(), RequestStatus.CONFIRMED);
+        int confirmedRequestsCount = tempEvent.getConfirmedRequests();
 
         if (tempEvent.getParticipantLimit() == confirmedRequestsCount) {
             throw new ConflictException("Participants limit has been reached.");
         }
 
+        Set<Long> requestIds = new HashSet<>(update.getRequestIds());
+        List<String> statuses = requestRepository.lockStatuses(eventId, requestIds);
+        if (statuses.size() < requestIds.size()) {
+            throw new NotFoundException(String.format("No Request:%s OR Event:%d was found", requestIds, eventId));
+        }
+        if (!statuses.stream().allMatch(RequestStatus.PENDING.name()::equals)) {
+            throw new ConflictException("Request must have status PENDING");
+        }
         switch (status) {
             case CONFIRMED:
-                UpdatedStatusDto updatedStatusConfirm = updateStatus(tempEvent,
-                        UpdatedStatusDto.builder()
-                                .updatedIds(update.getRequestIds())
-                                .build(),
-                        RequestStatus.CONFIRMED, confirmedRequestsCount);
-
-                List<Request> confirmedRequests = requestRepository.findAllById(updatedStatusConfirm.getProcessedIds());
-                List<Request> rejectedRequests = new ArrayList<>();
-                if (!updatedStatusConfirm.getUpdatedIds().isEmpty()) {
-                    List<Long> ids = updatedStatusConfirm.getUpdatedIds();
-                    rejectedRequests = rejectRequest(ids, eventId);
-                }
-
-                return EventRequestStatusUpdateResult.builder()
-                        .confirmedRequests(confirmedRequests.stream()
-                                .map(RequestDtoMapper::toParticipationRequestDto)
-                                .collect(Collectors.toList()))
-                        .rejectedRequests(rejectedRequests.stream()
-                                .map(RequestDtoMapper::toParticipationRequestDto)
-                                .collect(Collectors.toList()))
-                        .build();
+                int confirmed = requestRepository.confirmPending(eventId, requestIds,
+                        tempEvent.getParticipantLimit() - confirmedRequestsCount);
+                changeConfirmedRequests(tempEvent, confirmed);
+                requestRepository.rejectPending(eventId, requestIds);
+                break;
             case REJECTED:
-                UpdatedStatusDto updatedStatusReject = updateStatus(tempEvent,
-                        UpdatedStatusDto.builder()
-                                .updatedIds(update.getRequestIds())
-                                .build(),
-                        RequestStatus.REJECTED, confirmedRequestsCount);
-                List<Request> rejectRequest = requestRepository.findAllById(updatedStatusReject.getProcessedIds());
-
-                return EventRequestStatusUpdateResult.builder()
-                        .rejectedRequests(rejectRequest.stream()
-                                .map(RequestDtoMapper::toParticipationRequestDto)
-                                .collect(Collectors.toList()))
-                        .build();
+                requestRepository.rejectPending(eventId, requestIds);
+                break;
             default:
                 throw new ValidationException("Incorrect status:" + status);
         }
+
+        List<Request> requests = requestRepository.findAllByEventIdAndIdInOrderById(eventId, requestIds);
+        Map<RequestStatus, List<ParticipationRequestDto>> byStatus = requests.stream()
+                .map(RequestDtoMapper::toParticipationRequestDto)
+                .collect(Collectors.groupingBy(ParticipationRequestDto::getStatus));
+        return EventRequestStatusUpdateResult.builder()
+                .confirmedRequests(byStatus.getOrDefault(RequestStatus.CONFIRMED, List.of()))
+                .rejectedRequests(byStatus.getOrDefault(RequestStatus.REJECTED, List.of()))
+                .build();
     }
 
     @Override
@@ -303,16 +306,28 @@ public class EventServiceImpl implements EventService {
             throw new ValidationException("End time has to be after Start time.");
         }
         addStatsClient(request);
-        Pagination page = new Pagination(from, size);
+        EventSort sort = EventSort.from(params.getSort());
+        boolean byRelevance = sort == EventSort.RELEVANCE && params.getText() != null;
+        int offset = params.getAfter() == null ? from : 0;
+        Pagination page = new Pagination(offset, size);
         Specification<Event> specification = Specification.where(null);
 
         if (params.getText() != null) {
-            String searchText = params.getText().toLowerCase();
-            specification = specification.and((root, query, criteriaBuilder) ->
-                    criteriaBuilder.or(
-                            criteriaBuilder.like(criteriaBuilder.lower(root.get("annotation")), "%" + searchText + "%"),
-                            criteriaBuilder.like(criteriaBuilder.lower(root.get("description")), "%" + searchText + "%")
-                    ));
+            specification = specification.and(textSearch(params.getText()));
+        }
+        if (byRelevance) {
+            specification = specification.and(orderByRelevance(params.getText()));
+            page = new Pagination(offset, size, Sort.unsorted());
+        } else if (sort == EventSort.EVENT_DATE) {
+            page = new Pagination(offset, size, Sort.by("eventDate", "id"));
+        } else if (sort == EventSort.VIEWS) {
+            page = new Pagination(offset, size, Sort.by(Sort.Order.desc("views"), Sort.Order.asc("id")));
+        }
+        if (params.getAfter() != null) {
+            if (byRelevance) {
+                throw new ValidationException("Cursor pagination is not supported for sort:" + sort);
+            }
+            specification = specification.and(after(Cursor.decode(params.getAfter()), sort));
         }
 
         if (params.getCategories() != null && !params.getCategories().isEmpty()) {
@@ -329,26 +344,27 @@ public class EventServiceImpl implements EventService {
                     criteriaBuilder.lessThan(root.get("eventDate"), params.getRangeEnd()));
         }
 
-        if (params.getOnlyAvailable() != null) {
-            specification = specification.and((root, query, criteriaBuilder) ->
-                    criteriaBuilder.greaterThanOrEqualTo(root.get("participantLimit"), 0));
+        if (Boolean.TRUE.equals(params.getOnlyAvailable())) {
+            specification = specification.and((root, query, criteriaBuilder) -> criteriaBuilder.or(
+                    criteriaBuilder.equal(root.get("participantLimit"), 0),
+                    criteriaBuilder.lessThan(root.get("confirmedRequests"), root.get("participantLimit"))));
         }
 
         specification = specification.and((root, query, criteriaBuilder) ->
                 criteriaBuilder.equal(root.get("eventStatus"), EventState.PUBLISHED));
 
-        List<Event> resultEvents = eventRepository.findAll(specification, page).getContent();
+        List<Event> resultEvents = eventRepository.findSlice(specification, page);
         List<EventShortDto> result = resultEvents.stream()
                 .map(EventDtoMapper::toEventShortDto)
                 .collect(Collectors.toList());
-        Map<Long, Long> viewStatsMap = getViewsAllEvents(resultEvents);
-
+        Map<Long, Long> viewStatsMap = sort == EventSort.VIEWS ?
+                resultEvents.stream().collect(Collectors.toMap(Event::getId, Event::getViews)) :
+                getViewsAllEvents(resultEvents);
+        Map<Long, List<CommentDto>> commentsMap = getCommentsAllEvents(resultEvents);
 
         for (EventShortDto event : result) {
             event.setViews(viewStatsMap.getOrDefault(event.getId(), 0L));
-
-            List<Comment> commentsFromEvent = commentRepository.findAllByEventId(event.getId(), new Pagination(0, 10));
-            event.setComments(CommentDtoMapper.toDtos(commentsFromEvent));
+            event.setComments(commentsMap.getOrDefault(event.getId(), List.of()));
         }
         return result;
     }
@@ -364,11 +380,75 @@ public class EventServiceImpl implements EventService {
         Map<Long, Long> viewStatsMap = getViewsAllEvents(List.of(event));
         Long views = viewStatsMap.getOrDefault(event.getId(), 0L);
         eventFullDto.setViews(views);
-        List<Comment> comments = commentRepository.findAllByEventId(eventId, new Pagination(0, 10));
+        List<Comment> comments = commentRepository.findAllByEventId(eventId, new Pagination(0, COMMENTS_PER_EVENT));
         eventFullDto.setComments(CommentDtoMapper.toDtos(comments));
         return eventFullDto;
     }
 
+    private Specification<Event> textSearch(String text) {
+        if (searchMode == EventSearchMode.FULL_TEXT) {
+            return (root, query, criteriaBuilder) -> criteriaBuilder.isTrue(criteriaBuilder.function(
+                    SearchFunctionsContributor.FTS_MATCH, Boolean.class,
+                    root.get("annotation"), root.get("description"), criteriaBuilder.literal(text)));
+        }
+        if (searchMode == EventSearchMode.INDEX) {
+            Long[] ids = eventSearchIndex.search(text).toArray(new Long[0]);
+            return (root, query, criteriaBuilder) -> ids.length == 0 ?
+                    criteriaBuilder.disjunction() :
+                    criteriaBuilder.isTrue(criteriaBuilder.function(
+                            SearchFunctionsContributor.ID_ANY, Boolean.class,
+                            root.get("id"), criteriaBuilder.literal(ids)));
+        }
+        String pattern = "%" + text.toLowerCase() + "%";
+        return (root, query, criteriaBuilder) -> criteriaBuilder.or(
+                criteriaBuilder.like(criteriaBuilder.lower(root.get("annotation")), pattern),
+                criteriaBuilder.like(criteriaBuilder.lower(root.get("description")), pattern));
+    }
+
+    private Specification<Event> after(Cursor cursor, EventSort sort) {
+        if (sort == EventSort.EVENT_DATE) {
+            LocalDateTime eventDate = cursor.getKeyAsDateTime();
+            return (root, query, criteriaBuilder) -> criteriaBuilder.or(
+                    criteriaBuilder.greaterThan(root.get("eventDate"), eventDate),
+                    criteriaBuilder.and(
+                            criteriaBuilder.equal(root.get("eventDate"), eventDate),
+                            criteriaBuilder.greaterThan(root.get("id"), cursor.getId())));
+        }
+        if (sort == EventSort.VIEWS) {
+            long views = cursor.getKeyAsLong();
+            return (root, query, criteriaBuilder) -> criteriaBuilder.or(
+                    criteriaBuilder.lessThan(root.get("views"), views),
+                    criteriaBuilder.and(
+                            criteriaBuilder.equal(root.get("views"), views),
+                            criteriaBuilder.greaterThan(root.get("id"), cursor.getId())));
+        }
+        return (root, query, criteriaBuilder) -> criteriaBuilder.greaterThan(root.get("id"), cursor.getId());
+    }
+
+    private Specification<Event> orderByRelevance(String text) {
+        if (searchMode == EventSearchMode.FULL_TEXT) {
+            return (root, query, criteriaBuilder) -> {
+                query.orderBy(criteriaBuilder.desc(criteriaBuilder.function(
+                                SearchFunctionsContributor.FTS_RANK, Float.class,
+                                root.get("annotation"), root.get("description"), criteriaBuilder.literal(text))),
+                        criteriaBuilder.asc(root.get("id")));
+                return null;
+            };
+        }
+        String pattern = "%" + text.toLowerCase() + "%";
+        return (root, query, criteriaBuilder) -> {
+            Expression<Integer> inAnnotation = criteriaBuilder.<Integer>selectCase()
+                    .when(criteriaBuilder.like(criteriaBuilder.lower(root.get("annotation")), pattern), 2)
+                    .otherwise(0);
+            Expression<Integer> inDescription = criteriaBuilder.<Integer>selectCase()
+                    .when(criteriaBuilder.like(criteriaBuilder.lower(root.get("description")), pattern), 1)
+                    .otherwise(0);
+            query.orderBy(criteriaBuilder.desc(criteriaBuilder.sum(inAnnotation, inDescription)),
+                    criteriaBuilder.asc(root.get("id")));
+            return null;
+        };
+    }
+
     private Event checkEvent(Long eventId) {
         return eventRepository.findById(eventId)
                 .orElseThrow(() -> new NotFoundException(String.format("Event:%d is not found", eventId)));
@@ -380,7 +460,8 @@ public class EventServiceImpl implements EventService {
     }
 
     private Category checkCategory(Long catId) {
-        return categoryRepository.findById(catId)
+        return categoryCache.get(catId)
+                .map(CategoryDtoMapper::toCategory)
                 .orElseThrow(() -> new NotFoundException(String.format("Category:%d is not found", catId)));
     }
 
@@ -401,87 +482,29 @@ public class EventServiceImpl implements EventService {
                 .orElseThrow(() -> new NotFoundException(String.format("No Event:%d from User:%d was found", eventId, userId)));
     }
 
-    private List<Request> checkRequestOrEventList(Long eventId, List<Long> requestId) {
-        return requestRepository.findByEventIdAndIdIn(eventId, requestId).orElseThrow(
-                () -> new NotFoundException(String.format("No Request:%s OR Event:%d was found", requestId, eventId)));
-    }
-
-    private Map<Long, List<Request>> getConfirmedRequestsCount(List<Event> events) {
-        List<Request> requests = requestRepository.findAllByEventIdInAndStatus(events.stream()
+    private Map<Long, Long> getViewsAllEvents(List<Event> events) {
+        return eventViewsCache.getViews(events.stream()
                 .map(Event::getId)
-                .collect(Collectors.toList()), RequestStatus.CONFIRMED);
-        return requests.stream()
-                .collect(Collectors.groupingBy(r -> r.getEvent().getId()));
+                .collect(Collectors.toList()));
     }
 
-    private Map<Long, Long> getViewsAllEvents(List<Event> events) {
-        List<String> uris = events.stream()
-                .map(event -> String.format("/events/%s", event.getId()))
-                .collect(Collectors.toList());
-
-        List<LocalDateTime> startDates = events.stream()
-                .map(Event::getCreatedDate)
+    private Map<Long, List<CommentDto>> getCommentsAllEvents(List<Event> events) {
+        if (events.isEmpty()) {
+            return Map.of();
+        }
+        List<Long> eventIds = events.stream()
+                .map(Event::getId)
                 .collect(Collectors.toList());
-        LocalDateTime earliestDate = startDates.stream()
-                .min(LocalDateTime::compareTo)
-                .orElse(null);
-        Map<Long, Long> viewStatsMap = new HashMap<>();
-
-        if (earliestDate != null) {
-            ResponseEntity<Object> response = statsClient.getHit(earliestDate, LocalDateTime.now(),
-                    uris, true);
-
-            List<ViewStats> viewStatsList = objectMapper.convertValue(response.getBody(), new TypeReference<>() {
-            });
-
-            viewStatsMap = viewStatsList.stream()
-                    .filter(statsDto -> statsDto.getUri().startsWith("/events/"))
-                    .collect(Collectors.toMap(
-                            statsDto -> Long.parseLong(statsDto.getUri().substring("/events/".length())),
-                            ViewStats::getHits
-                    ));
-        }
-        return viewStatsMap;
-    }
-
-    private UpdatedStatusDto updateStatus(Event event,
-                                          UpdatedStatusDto updatedIds,
-                                          RequestStatus status,
-                                          Integer confirmedRequestsCount) {
-        int freeRequest = event.getParticipantLimit() - confirmedRequestsCount;
-        List<Request> requestListLoaded = checkRequestOrEventList(event.getId(), updatedIds.getUpdatedIds());
-        List<Long> processedIds = new ArrayList<>();
-        List<Request> requests = new ArrayList<>();
-
-        for (Request request : requestListLoaded) {
-            if (freeRequest == 0) {
-                break;
-            }
-            request.setStatus(status);
-            requests.add(request);
-            processedIds.add(request.getId());
-            freeRequest--;
-        }
-        requestRepository.saveAll(requests);
-        updatedIds.setProcessedIds(processedIds);
-        return updatedIds;
+        return commentRepository.findLeadingCommentsOfEvents(eventIds, COMMENTS_PER_EVENT).stream()
+                .collect(Collectors.groupingBy(EventCommentView::getEventId,
+                        Collectors.mapping(CommentDtoMapper::toDto, Collectors.toList())));
     }
 
-    private List<Request> rejectRequest(List<Long> ids, Long eventId) {
-        List<Request> rejectedRequests = new ArrayList<>();
-        List<Request> requestList = new ArrayList<>();
-        List<Request> requestListLoaded = checkRequestOrEventList(eventId, ids);
-
-        for (Request request : requestListLoaded) {
-            if (!request.getStatus().equals(RequestStatus.PENDING)) {
-                break;
-            }
-            request.setStatus(RequestStatus.REJECTED);
-            requestList.add(request);
-            rejectedRequests.add(request);
+    private void changeConfirmedRequests(Event event, int delta) {
+        if (delta != 0) {
+            eventRepository.addConfirmedRequests(event.getId(), delta);
+            event.setConfirmedRequests(event.getConfirmedRequests() + delta);
         }
-        requestRepository.saveAll(requestList);
-        return rejectedRequests;
     }
 
     private void addStatsClient(HttpServletRequest request) {
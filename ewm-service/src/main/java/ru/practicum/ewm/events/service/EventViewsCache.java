@@ -0,0 +1,83 @@
+package ru.practicum.ewm.events.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.ewm.client.StatsClient;
+import ru.practicum.ewm.client.ViewCounts;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+@Slf4j
+@Component
+public class EventViewsCache {
+    private final StatsClient statsClient;
+    private final AsyncLoadingCache<Long, Long> views;
+
+    public EventViewsCache(StatsClient statsClient,
+                           MeterRegistry meterRegistry,
+                           @Value("${ewm.views.cache.maximum-size}") long maximumSize,
+                           @Value("${ewm.views.cache.expire-after-write}") Duration expireAfterWrite,
+                           @Value("${ewm.views.cache.refresh-after-write}") Duration refreshAfterWrite) {
+        this.statsClient = statsClient;
+        this.views = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .refreshAfterWrite(refreshAfterWrite)
+                .recordStats()
+                .buildAsync(new ViewsLoader());
+        CaffeineCacheMetrics.monitor(meterRegistry, views.synchronous(), "eventViews");
+    }
+
+    public Map<Long, Long> getViews(Collection<Long> eventIds) {
+        if (eventIds.isEmpty()) {
+            return Map.of();
+        }
+        try {
+            return views.getAll(eventIds).join();
+        } catch (CompletionException e) {
+            log.warn("Failed to load views from stat-server, using cached values: {}", e.getCause().getMessage());
+            Map<Long, Long> present = views.synchronous().getAllPresent(eventIds);
+            Map<Long, Long> result = new HashMap<>();
+            eventIds.forEach(id -> result.put(id, present.getOrDefault(id, 0L)));
+            return result;
+        }
+    }
+
+    private Map<Long, Long> loadViews(Set<Long> eventIds) {
+        ViewCounts counts = statsClient.getViews(eventIds);
+        Map<Long, Long> result = new HashMap<>();
+        for (Long eventId : eventIds) {
+            result.put(eventId, counts.get(eventId));
+        }
+        return result;
+    }
+
+    private class ViewsLoader implements AsyncCacheLoader<Long, Long> {
+
+        @Override
+        public CompletableFuture<Long> asyncLoad(Long eventId, Executor executor) {
+            return CompletableFuture.supplyAsync(() -> loadViews(Set.of(eventId)).get(eventId), executor);
+        }
+
+        @Override
+        public CompletableFuture<Map<Long, Long>> asyncLoadAll(Iterable<? extends Long> eventIds, Executor executor) {
+            Set<Long> ids = new HashSet<>();
+            eventIds.forEach(ids::add);
+            return CompletableFuture.supplyAsync(() -> loadViews(ids), executor);
+        }
+    }
+}
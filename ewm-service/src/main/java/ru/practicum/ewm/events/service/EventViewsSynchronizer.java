@@ -0,0 +1,96 @@
+package ru.practicum.ewm.events.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.ewm.client.StatsClient;
+import ru.practicum.ewm.client.ViewCounts;
+import ru.practicum.ewm.events.dto.EventViewsView;
+import ru.practicum.ewm.events.model.enums.EventState;
+import ru.practicum.ewm.events.repository.EventRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EventViewsSynchronizer {
+    private static final int BATCH_SIZE = 200;
+
+    private final EventRepository eventRepository;
+    private final StatsClient statsClient;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${ewm.views.sync-overlap}")
+    private Duration overlap;
+
+    private LocalDateTime syncedFrom;
+
+    @Scheduled(fixedDelayString = "${ewm.views.sync-interval}")
+    public void synchronize() {
+        LocalDateTime started = LocalDateTime.now();
+        try {
+            int updated = syncedFrom == null ? synchronizeAll() : synchronizeViewedSince(syncedFrom.minus(overlap));
+            syncedFrom = started;
+            if (updated > 0) {
+                log.debug("Synchronized views of {} events.", updated);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to synchronize event views: {}", e.getMessage());
+        }
+    }
+
+    private int synchronizeAll() {
+        long afterId = 0;
+        int updated = 0;
+        List<EventViewsView> batch;
+        do {
+            batch = eventRepository.findViewsAfter(EventState.PUBLISHED, afterId, PageRequest.of(0, BATCH_SIZE));
+            if (batch.isEmpty()) {
+                break;
+            }
+            updated += update(batch);
+            afterId = batch.get(batch.size() - 1).getId();
+        } while (batch.size() == BATCH_SIZE);
+        return updated;
+    }
+
+    private int synchronizeViewedSince(LocalDateTime since) {
+        List<Long> viewed = new ArrayList<>(statsClient.getViewedEventIds(since));
+        int updated = 0;
+        for (int from = 0; from < viewed.size(); from += BATCH_SIZE) {
+            List<Long> ids = viewed.subList(from, Math.min(from + BATCH_SIZE, viewed.size()));
+            List<EventViewsView> batch = eventRepository.findViewsByIdIn(EventState.PUBLISHED, ids);
+            if (!batch.isEmpty()) {
+                updated += update(batch);
+            }
+        }
+        return updated;
+    }
+
+    private int update(List<EventViewsView> batch) {
+        List<Long> ids = new ArrayList<>(batch.size());
+        for (EventViewsView event : batch) {
+            ids.add(event.getId());
+        }
+        ViewCounts views = statsClient.getViews(ids);
+        List<Object[]> changes = new ArrayList<>();
+        for (EventViewsView event : batch) {
+            long current = views.get(event.getId());
+            if (current != event.getViews()) {
+                changes.add(new Object[]{current, event.getId()});
+            }
+        }
+        if (!changes.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE EVENTS SET VIEWS = ? WHERE ID = ?", changes);
+        }
+        return changes.size();
+    }
+}
@@ -0,0 +1,46 @@
+package ru.practicum.ewm.events.service;
+
+import java.util.Arrays;
+
+class PostingList {
+    private long[] ids = new long[4];
+    private int size;
+
+    void add(long id) {
+        int index = Arrays.binarySearch(ids, 0, size, id);
+        if (index >= 0) {
+            return;
+        }
+        index = -index - 1;
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        System.arraycopy(ids, index, ids, index + 1, size - index);
+        ids[index] = id;
+        size++;
+    }
+
+    void remove(long id) {
+        int index = Arrays.binarySearch(ids, 0, size, id);
+        if (index >= 0) {
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+        }
+    }
+
+    boolean contains(long id) {
+        return Arrays.binarySearch(ids, 0, size, id) >= 0;
+    }
+
+    long get(int index) {
+        return ids[index];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+}
@@ -1,24 +1,41 @@
 package ru.practicum.ewm.request.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.ewm.request.model.Request;
-import ru.practicum.ewm.request.model.enums.RequestStatus;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface RequestRepository extends JpaRepository<Request, Long> {
     List<Request> findAllByEventId(Long eventId);
 
-    int countByEventIdAndStatus(Long eventId, RequestStatus status);
-
-    List<Request> findAllByEventIdInAndStatus(List<Long> eventIds, RequestStatus status);
-
     Boolean existsByEventIdAndRequesterId(Long eventId, Long userId);
 
     Optional<Request> findByIdAndRequesterId(Long id, Long requesterId);
 
     List<Request> findAllByRequesterId(Long userId);
 
-    Optional<List<Request>> findByEventIdAndIdIn(Long eventId, List<Long> id);
-}
\ No newline at end of file
+    @EntityGraph(attributePaths = {"event", "requester"})
+    List<Request> findAllByEventIdAndIdInOrderById(Long eventId, Collection<Long> ids);
+
+    @Query(value = "SELECT STATUS FROM REQUESTS WHERE EVENT_ID = :eventId AND ID IN (:ids) FOR UPDATE",
+            nativeQuery = true)
+    List<String> lockStatuses(@Param("eventId") Long eventId, @Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "UPDATE REQUESTS SET STATUS = 'CONFIRMED' WHERE ID IN (" +
+            "SELECT ID FROM REQUESTS WHERE EVENT_ID = :eventId AND ID IN (:ids) AND STATUS = 'PENDING' " +
+            "ORDER BY ID LIMIT :capacity)", nativeQuery = true)
+    int confirmPending(@Param("eventId") Long eventId, @Param("ids") Collection<Long> ids,
+                       @Param("capacity") int capacity);
+
+    @Modifying
+    @Query(value = "UPDATE REQUESTS SET STATUS = 'REJECTED' " +
+            "WHERE EVENT_ID = :eventId AND ID IN (:ids) AND STATUS = 'PENDING'", nativeQuery = true)
+    int rejectPending(@Param("eventId") Long eventId, @Param("ids") Collection<Long> ids);
+}
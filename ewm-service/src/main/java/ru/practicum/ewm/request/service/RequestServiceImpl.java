@@ -28,6 +28,7 @@ public class RequestServiceImpl implements RequestService {
     private final UserRepository userRepository;
     private final EventRepository eventRepository;
 
+    @Transactional
     @Override
     public ParticipationRequestDto addNewRequest(Long userId, Long eventId) {
         User user = checkUser(userId);
@@ -38,12 +39,12 @@ public class RequestServiceImpl implements RequestService {
                 .created(LocalDateTime.now())
                 .requester(user)
                 .event(event)
-                .status(event.isRequestModeration() ? RequestStatus.PENDING : RequestStatus.CONFIRMED)
+                .status(event.isRequestModeration() && event.getParticipantLimit() > 0 ?
+                        RequestStatus.PENDING : RequestStatus.CONFIRMED)
                 .build();
         requestRepository.save(request);
-
-        if (event.getParticipantLimit() == 0) {
-            request.setStatus(RequestStatus.CONFIRMED);
+        if (request.getStatus() == RequestStatus.CONFIRMED && eventRepository.reserveParticipant(eventId) == 0) {
+            throw new ConflictException("Participant limit is exceeded.");
         }
 
         return RequestDtoMapper.toParticipationRequestDto(request);
@@ -66,6 +67,9 @@ public class RequestServiceImpl implements RequestService {
         if (request.getStatus().equals(RequestStatus.CANCELED) || request.getStatus().equals(RequestStatus.REJECTED)) {
             throw new ValidationException("Request need to be in state of PENDING or CONFIRMED.");
         }
+        if (request.getStatus() == RequestStatus.CONFIRMED) {
+            eventRepository.addConfirmedRequests(request.getEvent().getId(), -1);
+        }
         request.setStatus(RequestStatus.CANCELED);
         Request requestAfterSave = requestRepository.save(request);
         return RequestDtoMapper.toParticipationRequestDto(requestAfterSave);
@@ -85,7 +89,7 @@ public class RequestServiceImpl implements RequestService {
         if (event.getInitiator().getId().equals(userId)) {
             throw new ConflictException(String.format("User:%d can not be a initiator of event:%d.", userId, eventId));
         }
-        if (event.getParticipantLimit() > 0 && event.getParticipantLimit() <= requestRepository.countByEventIdAndStatus(eventId, RequestStatus.CONFIRMED)) {
+        if (event.getParticipantLimit() > 0 && event.getParticipantLimit() <= event.getConfirmedRequests()) {
             throw new ConflictException("Participant limit is exceeded.");
         }
         if (!event.getEventStatus().equals(EventState.PUBLISHED)) {
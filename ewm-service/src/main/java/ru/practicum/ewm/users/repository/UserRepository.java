@@ -9,4 +9,8 @@ import java.util.List;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     List<User> findAllByIdIn(List<Long> ids, Pageable pageable);
+
+    List<User> findAllByIdGreaterThan(Long afterId, Pageable pageable);
+
+    List<User> findAllByIdInAndIdGreaterThan(List<Long> ids, Long afterId, Pageable pageable);
 }
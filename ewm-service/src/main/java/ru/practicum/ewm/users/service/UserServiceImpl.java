@@ -9,10 +9,10 @@ import ru.practicum.ewm.users.dto.UserDto;
 import ru.practicum.ewm.users.dto.UserDtoMapper;
 import ru.practicum.ewm.users.model.User;
 import ru.practicum.ewm.users.repository.UserRepository;
+import ru.practicum.ewm.utility.Cursor;
 import ru.practicum.ewm.utility.Pagination;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -22,10 +22,11 @@ public class UserServiceImpl implements UserService {
 
     @Transactional(readOnly = true)
     @Override
-    public List<UserDto> getUsers(List<Long> ids, Integer from, Integer size) {
-        Pagination pagination = new Pagination(from, size);
-        return ids == null ? UserDtoMapper.toDtos(userRepository.findAll(pagination).stream().collect(Collectors.toList())) :
-                UserDtoMapper.toDtos(userRepository.findAllByIdIn(ids, pagination));
+    public List<UserDto> getUsers(List<Long> ids, Integer from, Integer size, String after) {
+        Pagination pagination = new Pagination(after == null ? from : 0, size);
+        long afterId = Cursor.decodeId(after);
+        return ids == null ? UserDtoMapper.toDtos(userRepository.findAllByIdGreaterThan(afterId, pagination)) :
+                UserDtoMapper.toDtos(userRepository.findAllByIdInAndIdGreaterThan(ids, afterId, pagination));
     }
 
     @Override
@@ -0,0 +1,81 @@
+package ru.practicum.ewm.utility;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.ewm.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class Cursor {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final char SEPARATOR = '|';
+
+    private final long id;
+    private final String key;
+
+    public static String encode(long id) {
+        return encode(id, null);
+    }
+
+    public static String encode(long id, Object key) {
+        String value = key == null ? Long.toString(id) : Long.toString(id) + SEPARATOR + key;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static long decodeId(String cursor) {
+        return cursor == null ? 0 : decode(cursor).getId();
+    }
+
+    public static Cursor decode(String cursor) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.indexOf(SEPARATOR);
+            return separator < 0 ?
+                    new Cursor(Long.parseLong(value), null) :
+                    new Cursor(Long.parseLong(value.substring(0, separator)), value.substring(separator + 1));
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Invalid cursor:" + cursor);
+        }
+    }
+
+    public LocalDateTime getKeyAsDateTime() {
+        if (key == null) {
+            throw new ValidationException("Cursor does not match the sort order.");
+        }
+        try {
+            return LocalDateTime.parse(key);
+        } catch (DateTimeParseException e) {
+            throw new ValidationException("Cursor does not match the sort order.");
+        }
+    }
+
+    public long getKeyAsLong() {
+        if (key == null) {
+            throw new ValidationException("Cursor does not match the sort order.");
+        }
+        try {
+            return Long.parseLong(key);
+        } catch (NumberFormatException e) {
+            throw new ValidationException("Cursor does not match the sort order.");
+        }
+    }
+
+    public static <T> ResponseEntity<List<T>> withNextCursor(List<T> page, int size, Function<T, String> cursorOf) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        String next = page.isEmpty() || page.size() < size ? null : cursorOf.apply(page.get(page.size() - 1));
+        if (next != null) {
+            response.header(NEXT_CURSOR_HEADER, next);
+        }
+        return response.body(page);
+    }
+}
@@ -0,0 +1,86 @@
+package ru.practicum.ewm.utility;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.usertype.UserType;
+
+import java.io.Serializable;
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Arrays;
+
+public class LongArrayType implements UserType {
+    public static final LongArrayType INSTANCE = new LongArrayType();
+
+    @Override
+    public int[] sqlTypes() {
+        return new int[]{Types.ARRAY};
+    }
+
+    @Override
+    public Class<Long[]> returnedClass() {
+        return Long[].class;
+    }
+
+    @Override
+    public boolean equals(Object x, Object y) {
+        return Arrays.equals((Long[]) x, (Long[]) y);
+    }
+
+    @Override
+    public int hashCode(Object x) {
+        return Arrays.hashCode((Long[]) x);
+    }
+
+    @Override
+    public Object nullSafeGet(ResultSet rs, String[] names, SharedSessionContractImplementor session, Object owner)
+            throws SQLException {
+        Array array = rs.getArray(names[0]);
+        if (array == null) {
+            return null;
+        }
+        Object[] values = (Object[]) array.getArray();
+        Long[] result = new Long[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = values[i] == null ? null : ((Number) values[i]).longValue();
+        }
+        return result;
+    }
+
+    @Override
+    public void nullSafeSet(PreparedStatement st, Object value, int index, SharedSessionContractImplementor session)
+            throws SQLException {
+        if (value == null) {
+            st.setNull(index, Types.ARRAY);
+        } else {
+            st.setArray(index, st.getConnection().createArrayOf("bigint", (Long[]) value));
+        }
+    }
+
+    @Override
+    public Object deepCopy(Object value) {
+        return value == null ? null : ((Long[]) value).clone();
+    }
+
+    @Override
+    public boolean isMutable() {
+        return true;
+    }
+
+    @Override
+    public Serializable disassemble(Object value) {
+        return (Serializable) deepCopy(value);
+    }
+
+    @Override
+    public Object assemble(Serializable cached, Object owner) {
+        return deepCopy(cached);
+    }
+
+    @Override
+    public Object replace(Object original, Object target, Object owner) {
+        return deepCopy(original);
+    }
+}
@@ -1,19 +1,32 @@
 package ru.practicum.ewm.utility;
 
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 
 public class Pagination extends PageRequest {
-    public Pagination(int page, int size) {
-        super(page / size, size, Sort.by(Sort.Direction.ASC, "id"));
+    private final int from;
+
+    public Pagination(int from, int size) {
+        this(from, size, Sort.by(Sort.Direction.ASC, "id"));
+    }
+
+    public Pagination(int from, int size, Sort sort) {
+        super(from / size, size, sort);
+        this.from = from;
+    }
+
+    @Override
+    public long getOffset() {
+        return from;
     }
 
-    public Pagination(int page, int size, Sort sort) {
-        super(page / size, size, sort);
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof Pagination && super.equals(obj) && from == ((Pagination) obj).from;
     }
 
-    public Pageable getPageable() {
-        return of(getPageNumber(), getPageSize(), getSort());
+    @Override
+    public int hashCode() {
+        return 31 * super.hashCode() + from;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,26 @@
+package ru.practicum.ewm.utility;
+
+import org.hibernate.boot.MetadataBuilder;
+import org.hibernate.boot.spi.MetadataBuilderContributor;
+import org.hibernate.dialect.function.SQLFunctionTemplate;
+import org.hibernate.type.StandardBasicTypes;
+
+public class SearchFunctionsContributor implements MetadataBuilderContributor {
+    public static final String FTS_MATCH = "fts_match";
+    public static final String FTS_RANK = "fts_rank";
+    public static final String ID_ANY = "id_any";
+
+    private static final String DOCUMENT = "to_tsvector('simple', coalesce(?1, '') || ' ' || coalesce(?2, ''))";
+    private static final String QUERY = "plainto_tsquery('simple', ?3)";
+
+    @Override
+    public void contribute(MetadataBuilder metadataBuilder) {
+        metadataBuilder.applySqlFunction(FTS_MATCH,
+                new SQLFunctionTemplate(StandardBasicTypes.BOOLEAN, "(" + DOCUMENT + " @@ " + QUERY + ")"));
+        metadataBuilder.applySqlFunction(FTS_RANK,
+                new SQLFunctionTemplate(StandardBasicTypes.FLOAT, "ts_rank(" + DOCUMENT + ", " + QUERY + ")"));
+        metadataBuilder.applySqlFunction(ID_ANY,
+                new SQLFunctionTemplate(StandardBasicTypes.BOOLEAN, "(?1 = ANY(?2))"));
+        metadataBuilder.applyBasicType(LongArrayType.INSTANCE, Long[].class.getName());
+    }
+}
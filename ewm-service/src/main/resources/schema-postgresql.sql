@@ -0,0 +1,9 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS IX_EVENTS_ANNOTATION_TRGM ON EVENTS USING GIN (lower(ANNOTATION) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS IX_EVENTS_DESCRIPTION_TRGM ON EVENTS USING GIN (lower(DESCRIPTION) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS IX_EVENTS_SEARCH ON EVENTS USING GIN (
+  to_tsvector('simple', coalesce(ANNOTATION, '') || ' ' || coalesce(DESCRIPTION, '')));
+
+CREATE INDEX IF NOT EXISTS IX_EVENTS_AVAILABLE ON EVENTS (EVENT_DATE, ID)
+  WHERE PARTICIPANT_LIMIT = 0 OR CONFIRMED_REQUEST < PARTICIPANT_LIMIT;
@@ -33,7 +33,8 @@ CREATE TABLE IF NOT EXISTS EVENTS (
   INITIATOR_ID       BIGINT NOT NULL REFERENCES USERS (ID) ON DELETE CASCADE,
   LOCATION_ID        BIGINT NOT NULL REFERENCES LOCATIONS (ID) ON DELETE CASCADE,
   PAID               boolean,
-  CONFIRMED_REQUEST  INTEGER,
+  CONFIRMED_REQUEST  INTEGER DEFAULT 0 NOT NULL,
+  VIEWS              BIGINT DEFAULT 0 NOT NULL,
   PARTICIPANT_LIMIT  INTEGER NOT NULL,
   REQUEST_MODERATION boolean,
   TITLE              VARCHAR(120) NOT NULL,
@@ -41,6 +42,11 @@ CREATE TABLE IF NOT EXISTS EVENTS (
   CONSTRAINT PK_EVENTS PRIMARY KEY (ID)
 );
 
+ALTER TABLE EVENTS ADD COLUMN IF NOT EXISTS VIEWS BIGINT DEFAULT 0 NOT NULL;
+UPDATE EVENTS SET CONFIRMED_REQUEST = 0 WHERE CONFIRMED_REQUEST IS NULL;
+ALTER TABLE EVENTS ALTER COLUMN CONFIRMED_REQUEST SET DEFAULT 0;
+ALTER TABLE EVENTS ALTER COLUMN CONFIRMED_REQUEST SET NOT NULL;
+
 CREATE TABLE IF NOT EXISTS REQUESTS
 (
     ID           BIGINT GENERATED ALWAYS AS IDENTITY NOT NULL,
@@ -84,3 +90,8 @@ CREATE TABLE IF NOT EXISTS COMMENTS (
     EDITED          boolean,
     CONSTRAINT PK_COMMENTS PRIMARY KEY (ID)
 );
+
+CREATE INDEX IF NOT EXISTS IX_EVENTS_EVENT_DATE_ID ON EVENTS (EVENT_DATE, ID);
+CREATE INDEX IF NOT EXISTS IX_EVENTS_CATEGORY_ID ON EVENTS (CATEGORY_ID);
+CREATE INDEX IF NOT EXISTS IX_EVENTS_VIEWS_ID ON EVENTS (VIEWS DESC, ID);
+CREATE INDEX IF NOT EXISTS IX_COMMENTS_EVENT_ID_ID ON COMMENTS (EVENT_ID, ID);
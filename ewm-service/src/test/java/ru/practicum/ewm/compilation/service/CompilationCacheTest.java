@@ -0,0 +1,89 @@
+package ru.practicum.ewm.compilation.service;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import ru.practicum.ewm.category.dto.NewCategoryDto;
+import ru.practicum.ewm.category.service.CategoryService;
+import ru.practicum.ewm.client.StatsClient;
+import ru.practicum.ewm.compilation.dto.CompilationDto;
+import ru.practicum.ewm.compilation.dto.NewCompilationDto;
+import ru.practicum.ewm.events.dto.NewEventDto;
+import ru.practicum.ewm.events.model.Location;
+import ru.practicum.ewm.events.service.EventService;
+import ru.practicum.ewm.users.dto.NewUserRequest;
+import ru.practicum.ewm.users.service.UserService;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "ewm.compilations.cache.enabled=true"
+})
+class CompilationCacheTest {
+    private static final int COMPILATIONS = 3;
+    private static final int EVENTS_PER_COMPILATION = 4;
+
+    @MockBean
+    private StatsClient statsClient;
+
+    @Autowired
+    private CompilationService compilationService;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void warmCacheServesCompilationsWithoutStatements() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        String suffix = UUID.randomUUID().toString();
+        Long userId = userService.createUser(new NewUserRequest(suffix + "@mail.ru", "user")).getId();
+        Long categoryId = categoryService.createCategory(new NewCategoryDto(suffix.substring(0, 30))).getId();
+        Long compId = null;
+        for (int i = 0; i < COMPILATIONS; i++) {
+            Set<Long> eventIds = new HashSet<>();
+            for (int j = 0; j < EVENTS_PER_COMPILATION; j++) {
+                eventIds.add(eventService.addNewEvent(userId, NewEventDto.builder()
+                        .annotation("Annotation of a cached compilation event")
+                        .description("Description of a cached compilation event")
+                        .category(categoryId)
+                        .eventDate(LocalDateTime.now().plusDays(1 + j))
+                        .location(new Location(null, 55.75, 37.62))
+                        .title("Event " + j)
+                        .build()).getId());
+            }
+            compId = compilationService.addCompilation(NewCompilationDto.builder()
+                    .title("Cached compilation " + i)
+                    .events(eventIds)
+                    .build()).getId();
+        }
+        compilationService.getCompilations(null, 0, COMPILATIONS);
+        statistics.clear();
+
+        List<CompilationDto> compilations = compilationService.getCompilations(null, 0, COMPILATIONS);
+        CompilationDto compilation = compilationService.getCompilationById(compId);
+
+        assertEquals(COMPILATIONS, compilations.size());
+        assertEquals(EVENTS_PER_COMPILATION, compilation.getEvents().size());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+}
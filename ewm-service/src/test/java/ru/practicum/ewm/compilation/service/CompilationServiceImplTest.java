@@ -0,0 +1,106 @@
+package ru.practicum.ewm.compilation.service;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import ru.practicum.ewm.category.dto.NewCategoryDto;
+import ru.practicum.ewm.category.service.CategoryService;
+import ru.practicum.ewm.client.StatsClient;
+import ru.practicum.ewm.compilation.dto.CompilationDto;
+import ru.practicum.ewm.compilation.dto.NewCompilationDto;
+import ru.practicum.ewm.events.dto.NewEventDto;
+import ru.practicum.ewm.events.model.Location;
+import ru.practicum.ewm.events.service.EventService;
+import ru.practicum.ewm.users.dto.NewUserRequest;
+import ru.practicum.ewm.users.service.UserService;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "ewm.compilations.cache.enabled=false"
+})
+class CompilationServiceImplTest {
+    private static final int[] EVENTS_PER_COMPILATION = {0, 1, 3, 8};
+
+    @MockBean
+    private StatsClient statsClient;
+
+    @Autowired
+    private CompilationService compilationService;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        String suffix = UUID.randomUUID().toString();
+        Long userId = userService.createUser(new NewUserRequest(suffix + "@mail.ru", "user")).getId();
+        Long categoryId = categoryService.createCategory(new NewCategoryDto(suffix.substring(0, 30))).getId();
+        for (int i = 0; i < EVENTS_PER_COMPILATION.length; i++) {
+            Set<Long> eventIds = new HashSet<>();
+            for (int j = 0; j < EVENTS_PER_COMPILATION[i]; j++) {
+                eventIds.add(eventService.addNewEvent(userId, NewEventDto.builder()
+                        .annotation("Annotation of a compilation event")
+                        .description("Description of a compilation event")
+                        .category(categoryId)
+                        .eventDate(LocalDateTime.now().plusDays(1 + j))
+                        .location(new Location(null, 55.75, 37.62))
+                        .title("Event " + j)
+                        .build()).getId());
+            }
+            compilationService.addCompilation(NewCompilationDto.builder()
+                    .title("Compilation " + i)
+                    .pinned(i % 2 == 0)
+                    .events(eventIds)
+                    .build());
+        }
+    }
+
+    @Test
+    void getCompilationsRunsTwoStatementsPerPage() {
+        for (int size = 1; size <= EVENTS_PER_COMPILATION.length; size++) {
+            statistics.clear();
+
+            List<CompilationDto> compilations = compilationService.getCompilations(null, 0, size);
+
+            assertEquals(size, compilations.size());
+            assertEquals(2, statistics.getPrepareStatementCount());
+        }
+    }
+
+    @Test
+    void getCompilationsByPinnedRunsTwoStatementsPerPage() {
+        statistics.clear();
+
+        List<CompilationDto> compilations = compilationService.getCompilations(false, 0,
+                EVENTS_PER_COMPILATION.length / 2);
+
+        assertEquals(EVENTS_PER_COMPILATION.length / 2, compilations.size());
+        assertEquals(0, compilations.stream().filter(CompilationDto::isPinned).count());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+}
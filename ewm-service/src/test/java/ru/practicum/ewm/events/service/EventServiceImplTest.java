@@ -0,0 +1,101 @@
+package ru.practicum.ewm.events.service;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.mock.web.MockHttpServletRequest;
+import ru.practicum.ewm.category.dto.NewCategoryDto;
+import ru.practicum.ewm.category.service.CategoryService;
+import ru.practicum.ewm.client.StatsClient;
+import ru.practicum.ewm.events.dto.AdminEventParams;
+import ru.practicum.ewm.events.dto.EventFullDto;
+import ru.practicum.ewm.events.dto.EventParams;
+import ru.practicum.ewm.events.dto.EventShortDto;
+import ru.practicum.ewm.events.dto.NewEventDto;
+import ru.practicum.ewm.events.dto.UpdateEventAdminRequest;
+import ru.practicum.ewm.events.model.Location;
+import ru.practicum.ewm.events.model.enums.EventAdminState;
+import ru.practicum.ewm.users.dto.NewUserRequest;
+import ru.practicum.ewm.users.service.UserService;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class EventServiceImplTest {
+    private static final int EVENTS = 6;
+
+    @MockBean
+    private StatsClient statsClient;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private final List<Long> userIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        for (int i = 0; i < EVENTS; i++) {
+            String suffix = UUID.randomUUID().toString();
+            Long userId = userService.createUser(new NewUserRequest(suffix + "@mail.ru", "user")).getId();
+            Long categoryId = categoryService.createCategory(new NewCategoryDto(suffix.substring(0, 30))).getId();
+            EventFullDto event = eventService.addNewEvent(userId, NewEventDto.builder()
+                    .annotation("Annotation of a statement count event")
+                    .description("Description of a statement count event")
+                    .category(categoryId)
+                    .eventDate(LocalDateTime.now().plusDays(1 + i))
+                    .location(new Location(null, 55.75, 37.62))
+                    .title("Event " + i)
+                    .build());
+            UpdateEventAdminRequest publish = new UpdateEventAdminRequest();
+            publish.setStateAction(EventAdminState.PUBLISH_EVENT);
+            eventService.updateEventFromAdmin(event.getId(), publish);
+            userIds.add(userId);
+        }
+    }
+
+    @Test
+    void getAllEventsRunsTwoStatementsPerPage() {
+        statistics.clear();
+
+        List<EventShortDto> events = eventService.getAllEvents(EventParams.builder().sort("EVENT_DATE").build(),
+                new MockHttpServletRequest("GET", "/events"), 0, EVENTS);
+
+        assertEquals(EVENTS, events.size());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getAllEventFromAdminRunsOneStatementPerPage() {
+        statistics.clear();
+
+        List<EventFullDto> events = eventService.getAllEventFromAdmin(AdminEventParams.builder()
+                .users(userIds)
+                .from(0)
+                .size(EVENTS)
+                .build());
+
+        assertEquals(EVENTS, events.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
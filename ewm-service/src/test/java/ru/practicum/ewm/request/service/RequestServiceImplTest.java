@@ -0,0 +1,116 @@
+package ru.practicum.ewm.request.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.ewm.category.dto.NewCategoryDto;
+import ru.practicum.ewm.category.service.CategoryService;
+import ru.practicum.ewm.client.StatsClient;
+import ru.practicum.ewm.events.dto.EventFullDto;
+import ru.practicum.ewm.events.dto.NewEventDto;
+import ru.practicum.ewm.events.dto.UpdateEventAdminRequest;
+import ru.practicum.ewm.events.model.Location;
+import ru.practicum.ewm.events.model.enums.EventAdminState;
+import ru.practicum.ewm.events.service.EventService;
+import ru.practicum.ewm.exception.ConflictException;
+import ru.practicum.ewm.users.dto.NewUserRequest;
+import ru.practicum.ewm.users.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class RequestServiceImplTest {
+    private static final int PARTICIPANT_LIMIT = 5;
+    private static final int REQUESTERS = 40;
+    private static final int THREADS = 16;
+
+    @MockBean
+    private StatsClient statsClient;
+
+    @Autowired
+    private RequestService requestService;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void addNewRequestNeverExceedsParticipantLimit() throws Exception {
+        Long initiatorId = createUser();
+        Long categoryId = categoryService.createCategory(new NewCategoryDto(UUID.randomUUID().toString())).getId();
+        EventFullDto event = eventService.addNewEvent(initiatorId, NewEventDto.builder()
+                .annotation("Annotation of a limited event")
+                .description("Description of a limited event")
+                .category(categoryId)
+                .eventDate(LocalDateTime.now().plusDays(1))
+                .location(new Location(null, 55.75, 37.62))
+                .participantLimit(PARTICIPANT_LIMIT)
+                .requestModeration(false)
+                .title("Limited event")
+                .build());
+        UpdateEventAdminRequest publish = new UpdateEventAdminRequest();
+        publish.setStateAction(EventAdminState.PUBLISH_EVENT);
+        eventService.updateEventFromAdmin(event.getId(), publish);
+        List<Long> requesterIds = new ArrayList<>();
+        for (int i = 0; i < REQUESTERS; i++) {
+            requesterIds.add(createUser());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (Long requesterId : requesterIds) {
+            results.add(executor.submit(() -> {
+                start.await();
+                try {
+                    requestService.addNewRequest(requesterId, event.getId());
+                    return true;
+                } catch (ConflictException e) {
+                    return false;
+                }
+            }));
+        }
+        start.countDown();
+        int accepted = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get(60, TimeUnit.SECONDS)) {
+                accepted++;
+            }
+        }
+        executor.shutdown();
+
+        int confirmedRows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM REQUESTS " +
+                "WHERE EVENT_ID = ? AND STATUS = 'CONFIRMED'", Integer.class, event.getId());
+        int counter = jdbcTemplate.queryForObject("SELECT CONFIRMED_REQUEST FROM EVENTS WHERE ID = ?",
+                Integer.class, event.getId());
+        assertEquals(PARTICIPANT_LIMIT, accepted);
+        assertEquals(accepted, confirmedRows);
+        assertEquals(confirmedRows, counter);
+        assertTrue(counter <= PARTICIPANT_LIMIT);
+    }
+
+    private Long createUser() {
+        return userService.createUser(new NewUserRequest(UUID.randomUUID() + "@mail.ru", "user")).getId();
+    }
+}
@@ -17,13 +17,21 @@ public class BaseClient {
     }
 
     protected <T> ResponseEntity<Object> post(T body) {
-        return makeAndSendRequest(HttpMethod.POST, "/hit", null, body);
+        return post("/hit", body);
+    }
+
+    protected <T> ResponseEntity<Object> post(String path, T body) {
+        return makeAndSendRequest(HttpMethod.POST, path, null, body);
     }
 
     protected <T> ResponseEntity<Object> get(String path, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.GET, path, parameters, null);
     }
 
+    protected <R> R get(String path, Map<String, Object> parameters, Class<R> responseType) {
+        return restTemplate.getForObject(path, responseType, parameters);
+    }
+
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, @Nullable Map<String, Object> parameters, @Nullable T body) {
         HttpEntity<T> requestEntity = body == null ? null : new HttpEntity<>(body);
 
@@ -0,0 +1,73 @@
+package ru.practicum.ewm.client;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+@Slf4j
+public class CircuitBreaker {
+    private final int failureThreshold;
+    private final long openNanos;
+    private int failures;
+    private long openUntil;
+    private boolean open;
+    private boolean trialInFlight;
+
+    public CircuitBreaker(int failureThreshold, Duration openDuration) {
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+    }
+
+    public <T> T call(Supplier<T> action) {
+        acquire();
+        T result;
+        try {
+            result = action.get();
+        } catch (HttpClientErrorException e) {
+            onSuccess();
+            throw e;
+        } catch (RuntimeException e) {
+            onFailure();
+            throw e;
+        }
+        onSuccess();
+        return result;
+    }
+
+    public synchronized boolean isOpen() {
+        return open;
+    }
+
+    private synchronized void acquire() {
+        if (!open) {
+            return;
+        }
+        if (trialInFlight || System.nanoTime() - openUntil < 0) {
+            throw new CircuitBreakerOpenException("stat-server circuit breaker is open");
+        }
+        trialInFlight = true;
+    }
+
+    private synchronized void onSuccess() {
+        if (open) {
+            log.info("stat-server circuit breaker closed.");
+        }
+        failures = 0;
+        open = false;
+        trialInFlight = false;
+    }
+
+    private synchronized void onFailure() {
+        failures++;
+        if (trialInFlight || failures >= failureThreshold) {
+            if (!open) {
+                log.warn("stat-server circuit breaker opened after {} failures.", failures);
+            }
+            open = true;
+            trialInFlight = false;
+            openUntil = System.nanoTime() + openNanos;
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package ru.practicum.ewm.client;
+
+public class CircuitBreakerOpenException extends RuntimeException {
+    public CircuitBreakerOpenException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,112 @@
+package ru.practicum.ewm.client;
+
+import lombok.extern.slf4j.Slf4j;
+import ru.practicum.ewm.EndpointHit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+@Slf4j
+public class HitBuffer implements AutoCloseable {
+    private final BlockingQueue<EndpointHit> queue;
+    private final int batchSize;
+    private final OverflowPolicy overflowPolicy;
+    private final long blockTimeoutMillis;
+    private final Consumer<List<EndpointHit>> sender;
+    private final ScheduledExecutorService flusher;
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    private final AtomicLong queued = new AtomicLong();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    public HitBuffer(HitBufferProperties properties, Consumer<List<EndpointHit>> sender) {
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.batchSize = properties.getBatchSize();
+        this.overflowPolicy = properties.getOverflowPolicy();
+        this.blockTimeoutMillis = properties.getBlockTimeout().toMillis();
+        this.sender = sender;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stats-hit-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.getFlushInterval().toMillis();
+        flusher.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public boolean add(EndpointHit hit) {
+        boolean accepted;
+        if (overflowPolicy == OverflowPolicy.BLOCK) {
+            try {
+                accepted = queue.offer(hit, blockTimeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                accepted = false;
+            }
+        } else {
+            accepted = queue.offer(hit);
+        }
+
+        if (!accepted) {
+            dropped.incrementAndGet();
+            return false;
+        }
+        queued.incrementAndGet();
+        if (queue.size() >= batchSize && flushScheduled.compareAndSet(false, true)) {
+            flusher.execute(this::flush);
+        }
+        return true;
+    }
+
+    public synchronized void flush() {
+        flushScheduled.set(false);
+        List<EndpointHit> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            try {
+                sender.accept(batch);
+                sent.addAndGet(batch.size());
+            } catch (RuntimeException e) {
+                dropped.addAndGet(batch.size());
+                log.warn("Failed to send {} hits to stat-server: {}", batch.size(), e.getMessage());
+            }
+            batch.clear();
+        }
+    }
+
+    public long getQueued() {
+        return queued.get();
+    }
+
+    public long getSent() {
+        return sent.get();
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public int getPending() {
+        return queue.size();
+    }
+
+    @Override
+    public void close() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        log.info("Hit buffer closed: queued={}, sent={}, dropped={}", getQueued(), getSent(), getDropped());
+    }
+}
@@ -0,0 +1,21 @@
+package ru.practicum.ewm.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "stat-server.hits")
+public class HitBufferProperties {
+    private boolean async = false;
+    private int queueCapacity = 10_000;
+    private int batchSize = 100;
+    private Duration flushInterval = Duration.ofSeconds(1);
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+    private Duration blockTimeout = Duration.ofMillis(500);
+}
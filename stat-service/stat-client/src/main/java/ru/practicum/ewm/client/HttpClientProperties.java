@@ -0,0 +1,25 @@
+package ru.practicum.ewm.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "stat-server.http")
+public class HttpClientProperties {
+    private int maxConnections = 50;
+    private int maxConnectionsPerRoute = 20;
+    private Duration connectTimeout = Duration.ofSeconds(1);
+    private Duration connectionRequestTimeout = Duration.ofMillis(500);
+    private Duration readTimeout = Duration.ofSeconds(2);
+    private Duration keepAlive = Duration.ofSeconds(30);
+    private Duration validateAfterInactivity = Duration.ofSeconds(5);
+    private int retries = 1;
+    private int failureThreshold = 5;
+    private Duration openDuration = Duration.ofSeconds(30);
+}
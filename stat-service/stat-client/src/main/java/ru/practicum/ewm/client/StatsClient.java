@@ -1,45 +1,211 @@
 package ru.practicum.ewm.client;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.DefaultHttpRequestRetryHandler;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.ewm.EndpointHit;
+import ru.practicum.ewm.ViewStats;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
+@Slf4j
 @Service
-public class StatsClient extends BaseClient {
+public class StatsClient extends BaseClient implements DisposableBean {
     private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final LocalDateTime VIEWS_START = LocalDateTime.of(2000, 1, 1, 0, 0);
+    private static final String EVENT_URI_PREFIX = "/events/";
+    private static final Pattern EVENT_URI = Pattern.compile(EVENT_URI_PREFIX + "(\\d{1,18})");
+
+    private final HitBuffer hitBuffer;
+    private final CircuitBreaker circuitBreaker;
+    private final HttpComponentsClientHttpRequestFactory requestFactory;
 
     @Autowired
-    public StatsClient(@Value("${stat-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public StatsClient(@Value("${stat-server.url}") String serverUrl,
+                       RestTemplateBuilder builder,
+                       HitBufferProperties hitProperties,
+                       HttpClientProperties httpProperties,
+                       ObjectProvider<MeterRegistry> meterRegistry) {
+        this(serverUrl, builder, hitProperties, httpProperties, meterRegistry, createRequestFactory(httpProperties));
+    }
+
+    private StatsClient(String serverUrl,
+                        RestTemplateBuilder builder,
+                        HitBufferProperties hitProperties,
+                        HttpClientProperties httpProperties,
+                        ObjectProvider<MeterRegistry> meterRegistry,
+                        HttpComponentsClientHttpRequestFactory requestFactory) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
+                        .requestFactory(() -> requestFactory)
                         .build()
         );
+        this.requestFactory = requestFactory;
+        this.circuitBreaker = new CircuitBreaker(httpProperties.getFailureThreshold(), httpProperties.getOpenDuration());
+        this.hitBuffer = hitProperties.isAsync() ? new HitBuffer(hitProperties, this::sendHits) : null;
+        meterRegistry.ifAvailable(this::bindMetrics);
     }
 
     public ResponseEntity<Object> saveHit(EndpointHit hit) {
-        return post(hit);
+        if (hitBuffer != null) {
+            return hitBuffer.add(hit) ?
+                    ResponseEntity.status(HttpStatus.ACCEPTED).build() :
+                    ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        try {
+            return guarded(() -> post(hit));
+        } catch (RuntimeException e) {
+            log.warn("Failed to save hit to stat-server: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
     }
 
-    public ResponseEntity<Object> getHit(LocalDateTime start, LocalDateTime end, List<String> uris, Boolean unique) {
-        String uri = "/stats?start={start}&end={end}&unique={unique}&uris={uris}";
+    public ResponseEntity<Object> saveHits(List<EndpointHit> hits) {
+        return guarded(() -> post("/hits", hits));
+    }
+
+    public ViewStats[] getStats(LocalDateTime start, LocalDateTime end, Collection<String> uris,
+                                boolean unique, boolean approx) {
         Map<String, Object> parameters = Map.of(
                 "start", start.format(formatter),
                 "end", end.format(formatter),
                 "unique", unique,
+                "approx", approx,
                 "uris", String.join(",", uris)
         );
-        return get(uri, parameters);
+        ViewStats[] stats = circuitBreaker.call(() ->
+                get("/stats?start={start}&end={end}&unique={unique}&approx={approx}" +
+                        (uris.isEmpty() ? "" : "&uris={uris}"), parameters, ViewStats[].class));
+        return stats == null ? new ViewStats[0] : stats;
+    }
+
+    public ViewCounts getViews(Collection<Long> eventIds) {
+        ViewCounts views = new ViewCounts(eventIds.size());
+        if (eventIds.isEmpty()) {
+            return views;
+        }
+        List<String> uris = new ArrayList<>(eventIds.size());
+        for (Long eventId : eventIds) {
+            uris.add(EVENT_URI_PREFIX + eventId);
+        }
+        for (ViewStats stats : getStats(VIEWS_START, LocalDateTime.now(), uris, true, true)) {
+            String uri = stats.getUri();
+            if (uri.startsWith(EVENT_URI_PREFIX)) {
+                views.add(Long.parseLong(uri.substring(EVENT_URI_PREFIX.length())), stats.getHits());
+            }
+        }
+        return views;
+    }
+
+    public Set<Long> getViewedEventIds(LocalDateTime since) {
+        Set<Long> eventIds = new HashSet<>();
+        for (ViewStats stats : getStats(since, LocalDateTime.now(), List.of(), false, false)) {
+            Matcher matcher = EVENT_URI.matcher(stats.getUri());
+            if (matcher.matches()) {
+                eventIds.add(Long.parseLong(matcher.group(1)));
+            }
+        }
+        return eventIds;
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (hitBuffer != null) {
+            hitBuffer.close();
+        }
+        requestFactory.destroy();
+    }
+
+    private ResponseEntity<Object> guarded(Supplier<ResponseEntity<Object>> request) {
+        return circuitBreaker.call(() -> {
+            ResponseEntity<Object> response = request.get();
+            if (response.getStatusCode().is5xxServerError()) {
+                throw new HttpServerErrorException(response.getStatusCode());
+            }
+            return response;
+        });
+    }
+
+    private static HttpComponentsClientHttpRequestFactory createRequestFactory(HttpClientProperties properties) {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(properties.getMaxConnections());
+        connectionManager.setDefaultMaxPerRoute(properties.getMaxConnectionsPerRoute());
+        connectionManager.setValidateAfterInactivity((int) properties.getValidateAfterInactivity().toMillis());
+
+        long keepAlive = properties.getKeepAlive().toMillis();
+        CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setKeepAliveStrategy((response, context) -> {
+                    long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                    return serverKeepAlive > 0 ? Math.min(serverKeepAlive, keepAlive) : keepAlive;
+                })
+                .setRetryHandler(new DefaultHttpRequestRetryHandler(properties.getRetries(), false))
+                .evictExpiredConnections()
+                .evictIdleConnections(keepAlive, TimeUnit.MILLISECONDS)
+                .build();
+
+        HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
+        requestFactory.setConnectTimeout((int) properties.getConnectTimeout().toMillis());
+        requestFactory.setConnectionRequestTimeout((int) properties.getConnectionRequestTimeout().toMillis());
+        requestFactory.setReadTimeout((int) properties.getReadTimeout().toMillis());
+        return requestFactory;
+    }
+
+    private void bindMetrics(MeterRegistry registry) {
+        Gauge.builder("stats.client.circuit.open", circuitBreaker, breaker -> breaker.isOpen() ? 1 : 0)
+                .register(registry);
+        if (hitBuffer != null) {
+            bindHitBufferMetrics(registry);
+        }
+    }
+
+    private void sendHits(List<EndpointHit> hits) {
+        ResponseEntity<Object> response = saveHits(hits);
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            throw new IllegalStateException("stat-server responded with " + response.getStatusCode());
+        }
+    }
+
+    private void bindHitBufferMetrics(MeterRegistry registry) {
+        FunctionCounter.builder("stats.client.hits", hitBuffer, HitBuffer::getQueued)
+                .tag("result", "queued")
+                .register(registry);
+        FunctionCounter.builder("stats.client.hits", hitBuffer, HitBuffer::getSent)
+                .tag("result", "sent")
+                .register(registry);
+        FunctionCounter.builder("stats.client.hits", hitBuffer, HitBuffer::getDropped)
+                .tag("result", "dropped")
+                .register(registry);
+        Gauge.builder("stats.client.hits.pending", hitBuffer, HitBuffer::getPending)
+                .register(registry);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,90 @@
+package ru.practicum.ewm.client;
+
+public final class ViewCounts {
+    private static final long PHI = 0x9E3779B97F4A7C15L;
+
+    private long[] keys;
+    private long[] values;
+    private boolean[] used;
+    private int size;
+
+    ViewCounts(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(expectedSize, 2) * 2 - 1) << 1;
+        keys = new long[capacity];
+        values = new long[capacity];
+        used = new boolean[capacity];
+    }
+
+    public long get(long eventId) {
+        int slot = find(eventId);
+        return used[slot] ? values[slot] : 0L;
+    }
+
+    public boolean containsKey(long eventId) {
+        return used[find(eventId)];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void forEach(EntryConsumer consumer) {
+        for (int i = 0; i < keys.length; i++) {
+            if (used[i]) {
+                consumer.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    void add(long eventId, long views) {
+        int slot = find(eventId);
+        if (used[slot]) {
+            values[slot] += views;
+            return;
+        }
+        keys[slot] = eventId;
+        values[slot] = views;
+        used[slot] = true;
+        if (++size * 2 > keys.length) {
+            grow();
+        }
+    }
+
+    private int find(long eventId) {
+        int mask = keys.length - 1;
+        int slot = (int) ((eventId * PHI) >>> 32) & mask;
+        while (used[slot] && keys[slot] != eventId) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        boolean[] oldUsed = used;
+        keys = new long[oldKeys.length * 2];
+        values = new long[oldKeys.length * 2];
+        used = new boolean[oldKeys.length * 2];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                int slot = find(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+                used[slot] = true;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("{");
+        forEach((eventId, views) -> builder.append(builder.length() > 1 ? ", " : "").append(eventId).append('=').append(views));
+        return builder.append('}').toString();
+    }
+
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(long eventId, long views);
+    }
+}
@@ -1,9 +1,13 @@
 package ru.practicum.ewm.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -11,10 +15,14 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.ewm.EndpointHit;
 import ru.practicum.ewm.ViewStats;
+import ru.practicum.ewm.exception.ValidationException;
 import ru.practicum.ewm.service.StatsService;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
@@ -25,7 +33,10 @@ import java.util.List;
 @Slf4j
 public class StatsController {
 
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final StatsService service;
+    private final ObjectMapper objectMapper;
 
     @PostMapping("/hit")
     @ResponseStatus(code = HttpStatus.CREATED)
@@ -34,13 +45,54 @@ public class StatsController {
         service.saveHit(hit);
     }
 
+    @PostMapping("/hits")
+    @ResponseStatus(code = HttpStatus.CREATED)
+    public int hits(@RequestBody List<EndpointHit> hits) {
+        log.info("POST request to save {} hits.", hits.size());
+        return service.saveHits(hits);
+    }
+
     @GetMapping("/stats")
     public List<ViewStats> getStats(@RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime start,
                                     @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime end,
                                     @RequestParam(required = false) List<String> uris,
-                                    @RequestParam(defaultValue = "false") boolean unique) {
+                                    @RequestParam(defaultValue = "false") boolean unique,
+                                    @RequestParam(defaultValue = "false") boolean approx) {
+
+        log.info("GET request to get all statistic from {} to {} with unique:{}, approx:{} and uri in {}.",
+                start, end, unique, approx, uris);
+        return service.getStatsList(start, end, uris == null ? Collections.emptyList() : uris, unique, approx);
+    }
+
+    @GetMapping(value = "/stats", params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamStats(
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime start,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime end,
+            @RequestParam(required = false) List<String> uris,
+            @RequestParam(defaultValue = "false") boolean unique,
+            @RequestParam(defaultValue = "false") boolean approx) {
+
+        log.info("GET request to stream statistic from {} to {} with unique:{}, approx:{} and uri in {}.",
+                start, end, unique, approx, uris);
+        if (end.isBefore(start)) {
+            throw new ValidationException("The start date cannot be later than the end date");
+        }
+        List<String> uriList = uris == null ? Collections.emptyList() : uris;
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.setRootValueSeparator(null);
+                service.streamStats(start, end, uriList, unique, approx, stats -> writeLine(generator, stats));
+            }
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
 
-        log.info("GET request to get all statistic from {} to {} with unique:{} and uri in {}.", start, end, unique, uris);
-        return service.getStatsList(start, end, uris == null ? Collections.emptyList() : uris, unique);
+    private void writeLine(JsonGenerator generator, ViewStats stats) {
+        try {
+            generator.writeObject(stats);
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 }
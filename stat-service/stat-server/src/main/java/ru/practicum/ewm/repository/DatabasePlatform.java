@@ -0,0 +1,20 @@
+package ru.practicum.ewm.repository;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+@Component
+public class DatabasePlatform {
+    private final boolean postgres;
+
+    public DatabasePlatform(JdbcTemplate jdbcTemplate) {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        this.postgres = "PostgreSQL".equalsIgnoreCase(product);
+    }
+
+    public boolean isPostgres() {
+        return postgres;
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.ewm.repository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+public enum RollupResolution {
+    MINUTE(ChronoUnit.MINUTES),
+    HOUR(ChronoUnit.HOURS);
+
+    private final ChronoUnit unit;
+
+    RollupResolution(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    public LocalDateTime floor(LocalDateTime time) {
+        return time.truncatedTo(unit);
+    }
+
+    public LocalDateTime ceil(LocalDateTime time) {
+        LocalDateTime floor = floor(time);
+        return floor.equals(time) ? floor : floor.plus(1, unit);
+    }
+}
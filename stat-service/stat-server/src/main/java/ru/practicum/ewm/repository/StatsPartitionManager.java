@@ -0,0 +1,113 @@
+package ru.practicum.ewm.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StatsPartitionManager {
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("'y'yyyy'm'MM");
+    private static final Pattern PARTITION_NAME = Pattern.compile("stats_y(\\d{4})m(\\d{2})");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final DatabasePlatform databasePlatform;
+
+    @Value("${stats.partition.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${stats.partition.retention-months:0}")
+    private int retentionMonths;
+
+    @PostConstruct
+    @Scheduled(cron = "${stats.partition.cron:0 0 3 * * *}")
+    public void maintain() {
+        if (!databasePlatform.isPostgres()) {
+            return;
+        }
+        YearMonth current = YearMonth.now();
+        Set<YearMonth> months = new TreeSet<>();
+        for (int i = 0; i <= monthsAhead; i++) {
+            months.add(current.plusMonths(i));
+        }
+        jdbcTemplate.queryForList("SELECT DISTINCT CAST(date_trunc('month', created) AS DATE) FROM stats_default",
+                Date.class).forEach(month -> months.add(YearMonth.from(month.toLocalDate())));
+        for (YearMonth month : months) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> addPartition(month));
+            } catch (DataAccessException e) {
+                log.warn("Failed to create partition {}: {}", partitionName(month), e.getMessage());
+            }
+        }
+        if (retentionMonths > 0) {
+            dropPartitionsBefore(current.minusMonths(retentionMonths));
+        }
+    }
+
+    private void addPartition(YearMonth month) {
+        String name = partitionName(month);
+        if (Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, name))) {
+            return;
+        }
+        jdbcTemplate.execute("LOCK TABLE stats_default IN SHARE ROW EXCLUSIVE MODE");
+        Timestamp from = Timestamp.valueOf(month.atDay(1).atStartOfDay());
+        Timestamp to = Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay());
+        Boolean misplaced = jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM stats_default " +
+                "WHERE created >= ? AND created < ?)", Boolean.class, from, to);
+        if (!Boolean.TRUE.equals(misplaced)) {
+            createPartition(month);
+            return;
+        }
+        jdbcTemplate.execute("CREATE TABLE " + name + " (LIKE stats INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+        int moved = jdbcTemplate.update("WITH moved AS (DELETE FROM stats_default WHERE created >= ? AND created < ? " +
+                "RETURNING id, app, uri, ip, created) " +
+                "INSERT INTO " + name + " (id, app, uri, ip, created) SELECT id, app, uri, ip, created FROM moved", from, to);
+        jdbcTemplate.execute("ALTER TABLE stats ATTACH PARTITION " + name + " " + bounds(month));
+        log.info("Created partition {} with {} hits moved from stats_default.", name, moved);
+    }
+
+    private void createPartition(YearMonth month) {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(month) + " PARTITION OF stats " + bounds(month));
+    }
+
+    private static String partitionName(YearMonth month) {
+        return "stats_" + month.format(PARTITION_SUFFIX);
+    }
+
+    private static String bounds(YearMonth month) {
+        LocalDate from = month.atDay(1);
+        return "FOR VALUES FROM ('" + from + "') TO ('" + from.plusMonths(1) + "')";
+    }
+
+    private void dropPartitionsBefore(YearMonth oldestKept) {
+        List<String> partitions = jdbcTemplate.queryForList("SELECT c.relname FROM pg_inherits i " +
+                "JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = to_regclass('stats')", String.class);
+        for (String partition : partitions) {
+            Matcher matcher = PARTITION_NAME.matcher(partition);
+            if (matcher.matches() && YearMonth.of(Integer.parseInt(matcher.group(1)),
+                    Integer.parseInt(matcher.group(2))).isBefore(oldestKept)) {
+                jdbcTemplate.execute("DROP TABLE " + partition);
+                log.info("Dropped expired partition {}.", partition);
+            }
+        }
+    }
+}
@@ -3,14 +3,25 @@ package ru.practicum.ewm.repository;
 import org.springframework.stereotype.Component;
 import ru.practicum.ewm.EndpointHit;
 import ru.practicum.ewm.ViewStats;
+import ru.practicum.ewm.sketch.HyperLogLog;
+import ru.practicum.ewm.sketch.SketchKey;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 @Component
 public interface StatsRepository {
 
     void saveHit(EndpointHit hit);
 
+    int saveHits(List<EndpointHit> hits);
+
     List<ViewStats> getStats(LocalDateTime start, LocalDateTime end, List<String> uris, boolean unique);
+
+    void streamStats(LocalDateTime start, LocalDateTime end, List<String> uris, boolean unique,
+                     Consumer<ViewStats> consumer);
+
+    Map<SketchKey, HyperLogLog> getUniqueSketches(LocalDateTime start, LocalDateTime end, List<String> uris);
 }
\ No newline at end of file
@@ -1,40 +1,220 @@
 package ru.practicum.ewm.repository;
 
 import lombok.RequiredArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.support.AbstractSqlTypeValue;
 import org.springframework.stereotype.Component;
 import ru.practicum.ewm.EndpointHit;
 import ru.practicum.ewm.ViewStats;
 import ru.practicum.ewm.mapper.ViewStatMapper;
+import ru.practicum.ewm.sketch.HyperLogLog;
+import ru.practicum.ewm.sketch.SketchKey;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 @Component
 @RequiredArgsConstructor
 public class StatsRepositoryImpl implements StatsRepository {
+    private static final String INSERT_HIT = "INSERT INTO stats (app, uri, ip, created) VALUES (?, ?, ?, ?)";
+    private static final int INSERT_BATCH_SIZE = 1000;
+
     private final JdbcTemplate jdbcTemplate;
     private final ViewStatMapper viewStatMapper;
+    private final StatsRollupRepository rollupRepository;
+
+    @Value("${stats.stream.fetch-size:1000}")
+    private int streamFetchSize;
 
     @Override
     public void saveHit(EndpointHit hit) {
-        jdbcTemplate.update("INSERT INTO stats (app, uri, ip, created) VALUES (?, ?, ?, ?)",
+        jdbcTemplate.update(INSERT_HIT,
                 hit.getApp(), hit.getUri(), hit.getIp(), Timestamp.valueOf(hit.getTimestamp()));
+        rollupRepository.addHits(List.of(hit));
+    }
+
+    @Override
+    public int saveHits(List<EndpointHit> hits) {
+        jdbcTemplate.batchUpdate(INSERT_HIT, hits, INSERT_BATCH_SIZE, (ps, hit) -> {
+            ps.setString(1, hit.getApp());
+            ps.setString(2, hit.getUri());
+            ps.setString(3, hit.getIp());
+            ps.setTimestamp(4, Timestamp.valueOf(hit.getTimestamp()));
+        });
+        rollupRepository.addHits(hits);
+        return hits.size();
     }
 
     @Override
     public List<ViewStats> getStats(LocalDateTime start, LocalDateTime end, List<String> uris, boolean unique) {
-        StringBuilder query = new StringBuilder(unique ?
+        StatsQuery query = statsQuery(start, end, uris, unique);
+        return jdbcTemplate.query(query.getSql(), viewStatMapper, query.getParams());
+    }
+
+    @Override
+    public void streamStats(LocalDateTime start, LocalDateTime end, List<String> uris, boolean unique,
+                            Consumer<ViewStats> consumer) {
+        StatsQuery query = statsQuery(start, end, uris, unique);
+        PreparedStatementSetter setter = new ArgumentPreparedStatementSetter(query.getParams());
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(query.getSql());
+            statement.setFetchSize(streamFetchSize);
+            setter.setValues(statement);
+            return statement;
+        }, (RowCallbackHandler) rs -> consumer.accept(viewStatMapper.mapRow(rs, rs.getRow())));
+    }
+
+    private StatsQuery statsQuery(LocalDateTime start, LocalDateTime end, List<String> uris, boolean unique) {
+        if (!unique) {
+            RollupRange range = rollupRange(start, end);
+            if (range != null) {
+                return rollupStatsQuery(start, end, range, uris);
+            }
+        }
+
+        String query = (unique ?
                 "SELECT app, uri, COUNT (DISTINCT ip) AS hits FROM stats WHERE (created >= ? AND created <= ?) " :
-                "SELECT app, uri, COUNT (ip) AS hits FROM stats WHERE (created >= ? AND created <= ?) ");
+                "SELECT app, uri, COUNT (ip) AS hits FROM stats WHERE (created >= ? AND created <= ?) ") +
+                uriFilter(uris) + "GROUP BY app, uri ORDER BY hits DESC";
+        List<Object> params = new ArrayList<>();
+        params.add(Timestamp.valueOf(start));
+        params.add(Timestamp.valueOf(end));
+        addUris(params, uris);
+
+        return new StatsQuery(query, params.toArray());
+    }
+
+    @Override
+    public Map<SketchKey, HyperLogLog> getUniqueSketches(LocalDateTime start, LocalDateTime end, List<String> uris) {
+        RollupRange range = rollupRange(start, end);
+        LocalDateTime rawFrom = range == null ? end : range.getMinuteStart();
+        LocalDateTime rawTo = range == null ? end : range.getMinuteEnd();
+        String uriFilter = uriFilter(uris);
+        long sketchedToId = rollupRepository.getSketchedToId();
+        Map<SketchKey, HyperLogLog> sketches = new HashMap<>();
 
+        if (range != null) {
+            List<Object> params = new ArrayList<>();
+            params.add(Timestamp.valueOf(range.getHourStart()));
+            params.add(Timestamp.valueOf(range.getHourEnd()));
+            params.add(Timestamp.valueOf(range.getMinuteStart()));
+            params.add(Timestamp.valueOf(range.getHourStart()));
+            params.add(Timestamp.valueOf(range.getHourEnd()));
+            params.add(Timestamp.valueOf(range.getMinuteEnd()));
+            addUris(params, uris);
+            jdbcTemplate.query("SELECT app, uri, ips FROM stats_rollup WHERE " +
+                    "((resolution = 'HOUR' AND bucket >= ? AND bucket < ?) OR (resolution = 'MINUTE' " +
+                    "AND ((bucket >= ? AND bucket < ?) OR (bucket >= ? AND bucket < ?)))) " + uriFilter, rs -> {
+                sketches.computeIfAbsent(new SketchKey(rs.getString("app"), rs.getString("uri")), k -> new HyperLogLog())
+                        .merge(HyperLogLog.fromBytes(rs.getBytes("ips")));
+            }, params.toArray());
+        }
+
+        List<Object> params = new ArrayList<>();
+        params.add(Timestamp.valueOf(start));
+        params.add(Timestamp.valueOf(end));
+        params.add(Timestamp.valueOf(rawFrom));
+        params.add(Timestamp.valueOf(rawTo));
+        params.add(sketchedToId);
+        addUris(params, uris);
+        jdbcTemplate.query("SELECT DISTINCT app, uri, ip FROM stats WHERE created >= ? AND created <= ? " +
+                "AND (created < ? OR created >= ? OR id > ?) " + uriFilter, rs -> {
+            sketches.computeIfAbsent(new SketchKey(rs.getString("app"), rs.getString("uri")), k -> new HyperLogLog())
+                    .offer(rs.getString("ip"));
+        }, params.toArray());
+
+        return sketches;
+    }
+
+    private StatsQuery rollupStatsQuery(LocalDateTime start, LocalDateTime end, RollupRange range,
+                                        List<String> uris) {
+        String uriFilter = uriFilter(uris);
+        String query = "SELECT app, uri, SUM(hits) AS hits FROM (" +
+                "SELECT app, uri, hits FROM stats_rollup WHERE resolution = 'HOUR' " +
+                "AND bucket >= ? AND bucket < ? " + uriFilter +
+                "UNION ALL " +
+                "SELECT app, uri, hits FROM stats_rollup WHERE resolution = 'MINUTE' " +
+                "AND ((bucket >= ? AND bucket < ?) OR (bucket >= ? AND bucket < ?)) " + uriFilter +
+                "UNION ALL " +
+                "SELECT app, uri, COUNT(ip) AS hits FROM stats WHERE created >= ? AND created <= ? " +
+                "AND (created < ? OR created >= ?) " + uriFilter + "GROUP BY app, uri" +
+                ") AS parts GROUP BY app, uri ORDER BY hits DESC";
+
+        List<Object> params = new ArrayList<>();
+        params.add(Timestamp.valueOf(range.getHourStart()));
+        params.add(Timestamp.valueOf(range.getHourEnd()));
+        addUris(params, uris);
+        params.add(Timestamp.valueOf(range.getMinuteStart()));
+        params.add(Timestamp.valueOf(range.getHourStart()));
+        params.add(Timestamp.valueOf(range.getHourEnd()));
+        params.add(Timestamp.valueOf(range.getMinuteEnd()));
+        addUris(params, uris);
+        params.add(Timestamp.valueOf(start));
+        params.add(Timestamp.valueOf(end));
+        params.add(Timestamp.valueOf(range.getMinuteStart()));
+        params.add(Timestamp.valueOf(range.getMinuteEnd()));
+        addUris(params, uris);
+
+        return new StatsQuery(query, params.toArray());
+    }
+
+    private RollupRange rollupRange(LocalDateTime start, LocalDateTime end) {
+        LocalDateTime from = start.isAfter(rollupRepository.getCoveredFrom()) ? start : rollupRepository.getCoveredFrom();
+        LocalDateTime minuteStart = RollupResolution.MINUTE.ceil(from);
+        LocalDateTime minuteEnd = RollupResolution.MINUTE.floor(end.plusNanos(1));
+        if (!minuteStart.isBefore(minuteEnd)) {
+            return null;
+        }
+        LocalDateTime hourStart = RollupResolution.HOUR.ceil(minuteStart);
+        LocalDateTime hourEnd = RollupResolution.HOUR.floor(minuteEnd);
+        if (!hourStart.isBefore(hourEnd)) {
+            hourStart = minuteEnd;
+            hourEnd = minuteEnd;
+        }
+        return new RollupRange(minuteStart, minuteEnd, hourStart, hourEnd);
+    }
+
+    private static String uriFilter(List<String> uris) {
+        return uris.isEmpty() ? "" : "AND uri = ANY(?) ";
+    }
+
+    private static void addUris(List<Object> params, List<String> uris) {
         if (!uris.isEmpty()) {
-            query.append("AND uri IN ('").append(String.join("', '", uris)).append("') ");
+            params.add(new AbstractSqlTypeValue() {
+                @Override
+                protected Object createTypeValue(Connection connection, int sqlType, String typeName) throws SQLException {
+                    return connection.createArrayOf("varchar", uris.toArray());
+                }
+            });
         }
+    }
 
-        query.append(" GROUP BY app, uri ORDER BY hits DESC");
+    @Getter
+    @RequiredArgsConstructor
+    private static class StatsQuery {
+        private final String sql;
+        private final Object[] params;
+    }
 
-        return jdbcTemplate.query(query.toString(), viewStatMapper, start, end);
+    @Getter
+    @RequiredArgsConstructor
+    private static class RollupRange {
+        private final LocalDateTime minuteStart;
+        private final LocalDateTime minuteEnd;
+        private final LocalDateTime hourStart;
+        private final LocalDateTime hourEnd;
     }
 }
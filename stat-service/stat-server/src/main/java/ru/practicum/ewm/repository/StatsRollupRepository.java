@@ -0,0 +1,15 @@
+package ru.practicum.ewm.repository;
+
+import ru.practicum.ewm.EndpointHit;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface StatsRollupRepository {
+
+    void addHits(List<EndpointHit> hits);
+
+    LocalDateTime getCoveredFrom();
+
+    long getSketchedToId();
+}
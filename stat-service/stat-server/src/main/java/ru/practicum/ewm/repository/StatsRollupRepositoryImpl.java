@@ -0,0 +1,172 @@
+package ru.practicum.ewm.repository;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.ewm.EndpointHit;
+import ru.practicum.ewm.sketch.HyperLogLog;
+
+import javax.annotation.PostConstruct;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StatsRollupRepositoryImpl implements StatsRollupRepository {
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final int KEYS_PER_SELECT = 100;
+    private static final Comparator<RollupKey> KEY_ORDER = Comparator.comparing(RollupKey::getResolution)
+            .thenComparing(RollupKey::getUri)
+            .thenComparing(RollupKey::getApp)
+            .thenComparing(RollupKey::getBucket);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final DatabasePlatform databasePlatform;
+    private volatile LocalDateTime coveredFrom;
+    private volatile long sketchedToId;
+    private long seenToId;
+
+    @Value("${stats.rollup.sketch-batch:10000}")
+    private int sketchBatch;
+
+    @PostConstruct
+    public void init() {
+        Boolean empty = jdbcTemplate.queryForObject("SELECT NOT EXISTS (SELECT 1 FROM stats)", Boolean.class);
+        LocalDateTime from = Boolean.TRUE.equals(empty) ? BEGINNING : RollupResolution.HOUR.ceil(LocalDateTime.now());
+        jdbcTemplate.update("INSERT INTO stats_rollup_state (id, covered_from) SELECT 1, CAST(? AS TIMESTAMP) " +
+                "WHERE NOT EXISTS (SELECT 1 FROM stats_rollup_state WHERE id = 1)", Timestamp.valueOf(from));
+        jdbcTemplate.update("UPDATE stats_rollup_state SET sketched_to_id = (SELECT COALESCE(MAX(id), 0) FROM stats) " +
+                "WHERE id = 1 AND sketched_to_id IS NULL");
+        Map<String, Object> state = jdbcTemplate.queryForMap("SELECT covered_from, sketched_to_id " +
+                "FROM stats_rollup_state WHERE id = 1");
+        coveredFrom = ((Timestamp) state.get("covered_from")).toLocalDateTime();
+        sketchedToId = ((Number) state.get("sketched_to_id")).longValue();
+        seenToId = sketchedToId;
+        log.info("Hit rollups cover hits from {}, sketches hits up to id {}.", coveredFrom, sketchedToId);
+    }
+
+    @Override
+    public LocalDateTime getCoveredFrom() {
+        return coveredFrom;
+    }
+
+    @Override
+    public long getSketchedToId() {
+        return sketchedToId;
+    }
+
+    @Override
+    public void addHits(List<EndpointHit> hits) {
+        Map<RollupKey, Long> counts = new TreeMap<>(KEY_ORDER);
+        for (EndpointHit hit : hits) {
+            for (RollupResolution resolution : RollupResolution.values()) {
+                RollupKey key = new RollupKey(resolution, hit.getUri(), hit.getApp(), resolution.floor(hit.getTimestamp()));
+                counts.merge(key, 1L, Long::sum);
+            }
+        }
+        List<Map.Entry<RollupKey, Long>> cells = new ArrayList<>(counts.entrySet());
+        if (databasePlatform.isPostgres()) {
+            jdbcTemplate.batchUpdate("INSERT INTO stats_rollup (resolution, uri, app, bucket, hits) " +
+                    "VALUES (?, ?, ?, ?, ?) ON CONFLICT (resolution, uri, app, bucket) " +
+                    "DO UPDATE SET hits = stats_rollup.hits + EXCLUDED.hits", cells, cells.size(), (ps, cell) -> {
+                        setKey(ps, 1, cell.getKey());
+                        ps.setLong(5, cell.getValue());
+                    });
+            return;
+        }
+        jdbcTemplate.batchUpdate("MERGE INTO stats_rollup (resolution, uri, app, bucket) " +
+                "KEY (resolution, uri, app, bucket) VALUES (?, ?, ?, ?)", cells, cells.size(),
+                (ps, cell) -> setKey(ps, 1, cell.getKey()));
+        jdbcTemplate.batchUpdate("UPDATE stats_rollup SET hits = hits + ? " +
+                "WHERE resolution = ? AND uri = ? AND app = ? AND bucket = ?", cells, cells.size(), (ps, cell) -> {
+                    ps.setLong(1, cell.getValue());
+                    setKey(ps, 2, cell.getKey());
+                });
+    }
+
+    @Scheduled(fixedDelayString = "${stats.rollup.sketch-interval:PT5S}",
+            initialDelayString = "${stats.rollup.sketch-interval:PT5S}")
+    public synchronized void mergeSketches() {
+        long toId = seenToId;
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM stats", Long.class);
+        seenToId = maxId == null ? 0 : maxId;
+        while (sketchedToId < toId) {
+            long fromId = sketchedToId;
+            long batchToId = Math.min(toId, fromId + sketchBatch);
+            transactionTemplate.executeWithoutResult(status -> mergeSketches(fromId, batchToId));
+            sketchedToId = batchToId;
+        }
+    }
+
+    private void mergeSketches(long fromId, long toId) {
+        Map<RollupKey, HyperLogLog> sketches = new TreeMap<>(KEY_ORDER);
+        jdbcTemplate.query("SELECT app, uri, ip, created FROM stats WHERE id > ? AND id <= ?", rs -> {
+            LocalDateTime created = rs.getTimestamp("created").toLocalDateTime();
+            for (RollupResolution resolution : RollupResolution.values()) {
+                RollupKey key = new RollupKey(resolution, rs.getString("uri"), rs.getString("app"),
+                        resolution.floor(created));
+                sketches.computeIfAbsent(key, k -> new HyperLogLog()).offer(rs.getString("ip"));
+            }
+        }, fromId, toId);
+
+        List<RollupKey> keys = new ArrayList<>(sketches.keySet());
+        for (int i = 0; i < keys.size(); i += KEYS_PER_SELECT) {
+            List<RollupKey> chunk = keys.subList(i, Math.min(keys.size(), i + KEYS_PER_SELECT));
+            String rows = String.join(", ", Collections.nCopies(chunk.size(), "(?, ?, ?, ?)"));
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement("SELECT resolution, uri, app, bucket, ips " +
+                        "FROM stats_rollup WHERE (resolution, uri, app, bucket) IN (" + rows + ")");
+                for (int k = 0; k < chunk.size(); k++) {
+                    setKey(statement, k * 4 + 1, chunk.get(k));
+                }
+                return statement;
+            }, rs -> {
+                RollupKey key = new RollupKey(RollupResolution.valueOf(rs.getString("resolution")), rs.getString("uri"),
+                        rs.getString("app"), rs.getTimestamp("bucket").toLocalDateTime());
+                HyperLogLog sketch = sketches.get(key);
+                if (sketch != null) {
+                    sketch.merge(HyperLogLog.fromBytes(rs.getBytes("ips")));
+                }
+            });
+        }
+
+        List<Map.Entry<RollupKey, HyperLogLog>> cells = new ArrayList<>(sketches.entrySet());
+        jdbcTemplate.batchUpdate("UPDATE stats_rollup SET ips = ? " +
+                "WHERE resolution = ? AND uri = ? AND app = ? AND bucket = ?", cells, cells.size(), (ps, cell) -> {
+                    ps.setBytes(1, cell.getValue().toBytes());
+                    setKey(ps, 2, cell.getKey());
+                });
+        jdbcTemplate.update("UPDATE stats_rollup_state SET sketched_to_id = ? WHERE id = 1", toId);
+    }
+
+    private static void setKey(PreparedStatement ps, int index, RollupKey key) throws SQLException {
+        ps.setString(index, key.getResolution().name());
+        ps.setString(index + 1, key.getUri());
+        ps.setString(index + 2, key.getApp());
+        ps.setTimestamp(index + 3, Timestamp.valueOf(key.getBucket()));
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class RollupKey {
+        private final RollupResolution resolution;
+        private final String uri;
+        private final String app;
+        private final LocalDateTime bucket;
+    }
+}
@@ -0,0 +1,23 @@
+package ru.practicum.ewm.repository;
+
+import ru.practicum.ewm.EndpointHit;
+import ru.practicum.ewm.sketch.UriSketch;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+public interface StatsSketchRepository {
+
+    List<UriSketch> findAll();
+
+    Optional<Long> getPersistedToId();
+
+    long getMaxHitId();
+
+    void saveAll(Collection<UriSketch> sketches, LocalDateTime persistedAt, long persistedToId);
+
+    void replayHits(long afterId, Consumer<EndpointHit> consumer);
+}
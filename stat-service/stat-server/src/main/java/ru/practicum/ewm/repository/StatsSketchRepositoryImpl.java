@@ -0,0 +1,94 @@
+package ru.practicum.ewm.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import ru.practicum.ewm.EndpointHit;
+import ru.practicum.ewm.sketch.HyperLogLog;
+import ru.practicum.ewm.sketch.UriSketch;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+@Component
+@RequiredArgsConstructor
+public class StatsSketchRepositoryImpl implements StatsSketchRepository {
+    private static final int REPLAY_FETCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabasePlatform databasePlatform;
+
+    @Override
+    public List<UriSketch> findAll() {
+        return jdbcTemplate.query("SELECT app, uri, ips, first_hit, last_hit FROM stats_sketch", (rs, rowNum) ->
+                new UriSketch(rs.getString("app"), rs.getString("uri"), HyperLogLog.fromBytes(rs.getBytes("ips")),
+                        rs.getTimestamp("first_hit").toLocalDateTime(), rs.getTimestamp("last_hit").toLocalDateTime()));
+    }
+
+    @Override
+    public Optional<Long> getPersistedToId() {
+        return Optional.ofNullable(jdbcTemplate.queryForObject("SELECT MAX(persisted_to_id) FROM stats_sketch", Long.class));
+    }
+
+    @Override
+    public long getMaxHitId() {
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM stats", Long.class);
+        return maxId == null ? 0 : maxId;
+    }
+
+    @Override
+    public void saveAll(Collection<UriSketch> sketches, LocalDateTime persistedAt, long persistedToId) {
+        String upsert = databasePlatform.isPostgres() ?
+                "INSERT INTO stats_sketch (ips, first_hit, last_hit, persisted_at, persisted_to_id, uri, app) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?) " +
+                        "ON CONFLICT (uri, app) DO UPDATE SET ips = EXCLUDED.ips, first_hit = EXCLUDED.first_hit, " +
+                        "last_hit = EXCLUDED.last_hit, persisted_at = EXCLUDED.persisted_at, " +
+                        "persisted_to_id = EXCLUDED.persisted_to_id" :
+                "MERGE INTO stats_sketch (ips, first_hit, last_hit, persisted_at, persisted_to_id, uri, app) " +
+                        "KEY (uri, app) VALUES (?, ?, ?, ?, ?, ?, ?)";
+        jdbcTemplate.batchUpdate(upsert, new ArrayList<>(sketches), sketches.size(), (ps, sketch) -> {
+            ps.setBytes(1, sketch.getIps().toBytes());
+            ps.setTimestamp(2, Timestamp.valueOf(sketch.getFirstHit()));
+            ps.setTimestamp(3, Timestamp.valueOf(sketch.getLastHit()));
+            ps.setTimestamp(4, Timestamp.valueOf(persistedAt));
+            ps.setLong(5, persistedToId);
+            ps.setString(6, sketch.getUri());
+            ps.setString(7, sketch.getApp());
+        });
+    }
+
+    @Override
+    public void replayHits(long afterId, Consumer<EndpointHit> consumer) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "SELECT app, uri, ip, created FROM stats WHERE id > ?")) {
+                statement.setFetchSize(REPLAY_FETCH_SIZE);
+                statement.setLong(1, afterId);
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        consumer.accept(EndpointHit.builder()
+                                .app(rs.getString("app"))
+                                .uri(rs.getString("uri"))
+                                .ip(rs.getString("ip"))
+                                .timestamp(rs.getTimestamp("created").toLocalDateTime())
+                                .build());
+                    }
+                }
+                connection.commit();
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+            return null;
+        });
+    }
+}
@@ -5,10 +5,17 @@ import ru.practicum.ewm.ViewStats;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface StatsService {
 
     void saveHit(EndpointHit hit);
 
-    List<ViewStats> getStatsList(LocalDateTime start, LocalDateTime end, List<String> uris, boolean unique);
+    int saveHits(List<EndpointHit> hits);
+
+    List<ViewStats> getStatsList(LocalDateTime start, LocalDateTime end, List<String> uris,
+                                 boolean unique, boolean approx);
+
+    void streamStats(LocalDateTime start, LocalDateTime end, List<String> uris,
+                     boolean unique, boolean approx, Consumer<ViewStats> consumer);
 }
@@ -7,28 +7,94 @@ import ru.practicum.ewm.EndpointHit;
 import ru.practicum.ewm.ViewStats;
 import ru.practicum.ewm.exception.ValidationException;
 import ru.practicum.ewm.repository.StatsRepository;
+import ru.practicum.ewm.sketch.SketchKey;
+import ru.practicum.ewm.sketch.UriSketch;
+import ru.practicum.ewm.sketch.UriSketchStore;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 @RequiredArgsConstructor
 @Service
 public class StatsServiceImpl implements StatsService {
     private final StatsRepository statsRepository;
+    private final UriSketchStore sketchStore;
 
     @Override
     @Transactional
     public void saveHit(EndpointHit hit) {
         statsRepository.saveHit(hit);
+        sketchStore.addHits(List.of(hit));
+    }
+
+    @Override
+    @Transactional
+    public int saveHits(List<EndpointHit> hits) {
+        if (hits.isEmpty()) {
+            return 0;
+        }
+        int saved = statsRepository.saveHits(hits);
+        sketchStore.addHits(hits);
+        return saved;
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<ViewStats> getStatsList(LocalDateTime start, LocalDateTime end, List<String> uris, boolean unique) {
+    public List<ViewStats> getStatsList(LocalDateTime start, LocalDateTime end, List<String> uris,
+                                        boolean unique, boolean approx) {
         if (end.isBefore(start)) {
             throw new ValidationException("The start date cannot be later than the end date");
         }
 
+        if (unique && approx) {
+            return getApproxUniqueStats(start, end, uris);
+        }
         return statsRepository.getStats(start, end, uris, unique);
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamStats(LocalDateTime start, LocalDateTime end, List<String> uris,
+                            boolean unique, boolean approx, Consumer<ViewStats> consumer) {
+        if (end.isBefore(start)) {
+            throw new ValidationException("The start date cannot be later than the end date");
+        }
+
+        if (unique && approx) {
+            getApproxUniqueStats(start, end, uris).forEach(consumer);
+            return;
+        }
+        statsRepository.streamStats(start, end, uris, unique, consumer);
+    }
+
+    private List<ViewStats> getApproxUniqueStats(LocalDateTime start, LocalDateTime end, List<String> uris) {
+        List<ViewStats> stats = new ArrayList<>();
+        Set<SketchKey> partial = new HashSet<>();
+        for (UriSketch sketch : sketchStore.find(uris)) {
+            if (sketch.isWithin(start, end)) {
+                stats.add(new ViewStats(sketch.getApp(), sketch.getUri(), sketch.estimate()));
+            } else if (sketch.overlaps(start, end)) {
+                partial.add(new SketchKey(sketch.getApp(), sketch.getUri()));
+            }
+        }
+
+        if (!partial.isEmpty()) {
+            List<String> partialUris = partial.stream().map(SketchKey::getUri).distinct().collect(Collectors.toList());
+            statsRepository.getUniqueSketches(start, end, partialUris)
+                    .forEach((key, ips) -> {
+                        if (partial.contains(key)) {
+                            stats.add(new ViewStats(key.getApp(), key.getUri(), ips.estimate()));
+                        }
+                    });
+        }
+
+        stats.sort(Comparator.comparing(ViewStats::getHits).reversed());
+        return stats;
+    }
 }
@@ -0,0 +1,112 @@
+package ru.practicum.ewm.sketch;
+
+import java.nio.charset.StandardCharsets;
+
+public class HyperLogLog {
+    public static final double STANDARD_ERROR = 1.04 / Math.sqrt(1 << 12);
+
+    private static final int PRECISION = 12;
+    private static final int REGISTERS = 1 << PRECISION;
+    private static final byte SPARSE = 1;
+    private static final byte DENSE = 2;
+
+    private final byte[] registers;
+
+    public HyperLogLog() {
+        this.registers = new byte[REGISTERS];
+    }
+
+    private HyperLogLog(byte[] registers) {
+        this.registers = registers;
+    }
+
+    public void offer(String value) {
+        long hash = hash(value);
+        int index = (int) (hash >>> (Long.SIZE - PRECISION));
+        byte rank = (byte) (Long.numberOfLeadingZeros((hash << PRECISION) | (1L << (PRECISION - 1))) + 1);
+        if (rank > registers[index]) {
+            registers[index] = rank;
+        }
+    }
+
+    public void merge(HyperLogLog other) {
+        for (int i = 0; i < REGISTERS; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+    }
+
+    public long estimate() {
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double alpha = 0.7213 / (1 + 1.079 / REGISTERS);
+        double estimate = alpha * REGISTERS * REGISTERS / sum;
+        if (estimate <= 2.5 * REGISTERS && zeros > 0) {
+            estimate = REGISTERS * Math.log((double) REGISTERS / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    public byte[] toBytes() {
+        int used = 0;
+        for (byte register : registers) {
+            if (register != 0) {
+                used++;
+            }
+        }
+        if (used * 3 >= REGISTERS) {
+            byte[] bytes = new byte[REGISTERS + 1];
+            bytes[0] = DENSE;
+            System.arraycopy(registers, 0, bytes, 1, REGISTERS);
+            return bytes;
+        }
+        byte[] bytes = new byte[used * 3 + 1];
+        bytes[0] = SPARSE;
+        int position = 1;
+        for (int i = 0; i < REGISTERS; i++) {
+            if (registers[i] != 0) {
+                bytes[position++] = (byte) (i >>> 8);
+                bytes[position++] = (byte) i;
+                bytes[position++] = registers[i];
+            }
+        }
+        return bytes;
+    }
+
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return new HyperLogLog();
+        }
+        byte[] registers = new byte[REGISTERS];
+        if (bytes[0] == DENSE) {
+            System.arraycopy(bytes, 1, registers, 0, REGISTERS);
+        } else {
+            for (int position = 1; position + 2 < bytes.length; position += 3) {
+                int index = ((bytes[position] & 0xFF) << 8) | (bytes[position + 1] & 0xFF);
+                registers[index] = bytes[position + 2];
+            }
+        }
+        return new HyperLogLog(registers);
+    }
+
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xFF;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,9 @@
+package ru.practicum.ewm.sketch;
+
+import lombok.Value;
+
+@Value
+public class SketchKey {
+    String app;
+    String uri;
+}
@@ -0,0 +1,62 @@
+package ru.practicum.ewm.sketch;
+
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+public class UriSketch {
+    private final String app;
+    private final String uri;
+    private final HyperLogLog ips;
+    private LocalDateTime firstHit;
+    private LocalDateTime lastHit;
+    private boolean dirty;
+
+    public UriSketch(String app, String uri) {
+        this(app, uri, new HyperLogLog(), null, null);
+    }
+
+    public UriSketch(String app, String uri, HyperLogLog ips, LocalDateTime firstHit, LocalDateTime lastHit) {
+        this.app = app;
+        this.uri = uri;
+        this.ips = ips;
+        this.firstHit = firstHit;
+        this.lastHit = lastHit;
+    }
+
+    public synchronized void offer(String ip, LocalDateTime timestamp) {
+        ips.offer(ip);
+        if (firstHit == null || timestamp.isBefore(firstHit)) {
+            firstHit = timestamp;
+        }
+        if (lastHit == null || timestamp.isAfter(lastHit)) {
+            lastHit = timestamp;
+        }
+        dirty = true;
+    }
+
+    public synchronized boolean isWithin(LocalDateTime start, LocalDateTime end) {
+        return firstHit != null && !firstHit.isBefore(start) && !lastHit.isAfter(end);
+    }
+
+    public synchronized boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        return firstHit != null && !lastHit.isBefore(start) && !firstHit.isAfter(end);
+    }
+
+    public synchronized long estimate() {
+        return ips.estimate();
+    }
+
+    public synchronized UriSketch snapshotIfDirty() {
+        if (!dirty) {
+            return null;
+        }
+        dirty = false;
+        return new UriSketch(app, uri, HyperLogLog.fromBytes(ips.toBytes()), firstHit, lastHit);
+    }
+
+    public synchronized void markDirty() {
+        dirty = true;
+    }
+}
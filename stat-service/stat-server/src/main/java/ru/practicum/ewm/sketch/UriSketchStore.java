@@ -0,0 +1,103 @@
+package ru.practicum.ewm.sketch;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.ewm.EndpointHit;
+import ru.practicum.ewm.repository.StatsSketchRepository;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UriSketchStore {
+    private final StatsSketchRepository sketchRepository;
+    private final Map<String, Map<String, UriSketch>> sketches = new ConcurrentHashMap<>();
+    private long seenToId;
+
+    @PostConstruct
+    public synchronized void load() {
+        sketchRepository.findAll().forEach(sketch ->
+                sketches.computeIfAbsent(sketch.getUri(), uri -> new ConcurrentHashMap<>()).put(sketch.getApp(), sketch));
+        long replayAfterId = sketchRepository.getPersistedToId().orElse(0L);
+        seenToId = sketchRepository.getMaxHitId();
+        sketchRepository.replayHits(replayAfterId, this::offer);
+        log.info("Loaded distinct-IP sketches for {} uris, replayed hits after id {}.", sketches.size(), replayAfterId);
+    }
+
+    public void addHits(List<EndpointHit> hits) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            hits.forEach(this::offer);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                hits.forEach(UriSketchStore.this::offer);
+            }
+        });
+    }
+
+    public List<UriSketch> find(List<String> uris) {
+        if (uris.isEmpty()) {
+            return sketches.values().stream()
+                    .flatMap(byApp -> byApp.values().stream())
+                    .collect(Collectors.toList());
+        }
+        return uris.stream()
+                .distinct()
+                .map(sketches::get)
+                .filter(Objects::nonNull)
+                .flatMap(byApp -> byApp.values().stream())
+                .collect(Collectors.toList());
+    }
+
+    @Scheduled(fixedDelayString = "${stats.sketch.persist-interval:PT1M}",
+            initialDelayString = "${stats.sketch.persist-interval:PT1M}")
+    @PreDestroy
+    public synchronized void persist() {
+        LocalDateTime persistedAt = LocalDateTime.now();
+        long persistedToId = seenToId;
+        seenToId = sketchRepository.getMaxHitId();
+        Collection<UriSketch> changed = new ArrayList<>();
+        List<UriSketch> sources = new ArrayList<>();
+        for (Map<String, UriSketch> byApp : sketches.values()) {
+            for (UriSketch sketch : byApp.values()) {
+                UriSketch snapshot = sketch.snapshotIfDirty();
+                if (snapshot != null) {
+                    changed.add(snapshot);
+                    sources.add(sketch);
+                }
+            }
+        }
+        if (changed.isEmpty()) {
+            return;
+        }
+        try {
+            sketchRepository.saveAll(changed, persistedAt, persistedToId);
+            log.debug("Persisted {} distinct-IP sketches.", changed.size());
+        } catch (RuntimeException e) {
+            sources.forEach(UriSketch::markDirty);
+            log.warn("Failed to persist distinct-IP sketches: {}", e.getMessage());
+        }
+    }
+
+    private void offer(EndpointHit hit) {
+        sketches.computeIfAbsent(hit.getUri(), uri -> new ConcurrentHashMap<>())
+                .computeIfAbsent(hit.getApp(), app -> new UriSketch(hit.getApp(), hit.getUri()))
+                .offer(hit.getIp(), hit.getTimestamp());
+    }
+}
@@ -0,0 +1,12 @@
+CREATE TABLE IF NOT EXISTS STATS (
+    ID           BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    APP          VARCHAR(255) NOT NULL,
+    URI          VARCHAR(2048) NOT NULL,
+    IP           VARCHAR(255) NOT NULL,
+    CREATED      TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    CONSTRAINT PK_STATS PRIMARY KEY (ID)
+);
+
+CREATE INDEX IF NOT EXISTS IX_STATS_URI_CREATED ON STATS (URI, CREATED);
+
+CREATE INDEX IF NOT EXISTS IX_STATS_CREATED ON STATS (CREATED);
@@ -1,8 +1,29 @@
-CREATE TABLE IF NOT EXISTS STATS (
-    ID           BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+CREATE TABLE IF NOT EXISTS STATS_ROLLUP (
+    RESOLUTION   VARCHAR(6) NOT NULL,
+    URI          VARCHAR(2048) NOT NULL,
     APP          VARCHAR(255) NOT NULL,
+    BUCKET       TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    HITS         BIGINT DEFAULT 0 NOT NULL,
+    IPS          BYTEA,
+    CONSTRAINT PK_STATS_ROLLUP PRIMARY KEY (RESOLUTION, URI, APP, BUCKET)
+);
+
+CREATE INDEX IF NOT EXISTS IX_STATS_ROLLUP_BUCKET ON STATS_ROLLUP (RESOLUTION, BUCKET);
+
+CREATE TABLE IF NOT EXISTS STATS_ROLLUP_STATE (
+    ID           INTEGER NOT NULL,
+    COVERED_FROM TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    SKETCHED_TO_ID BIGINT,
+    CONSTRAINT PK_STATS_ROLLUP_STATE PRIMARY KEY (ID)
+);
+
+CREATE TABLE IF NOT EXISTS STATS_SKETCH (
     URI          VARCHAR(2048) NOT NULL,
-    IP           VARCHAR(255) NOT NULL,
-    CREATED      TIMESTAMP WITHOUT TIME ZONE NOT NULL,
-    CONSTRAINT PK_STATS PRIMARY KEY (ID)
-);
\ No newline at end of file
+    APP          VARCHAR(255) NOT NULL,
+    IPS          BYTEA NOT NULL,
+    FIRST_HIT    TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    LAST_HIT     TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    PERSISTED_AT TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    PERSISTED_TO_ID BIGINT,
+    CONSTRAINT PK_STATS_SKETCH PRIMARY KEY (URI, APP)
+);